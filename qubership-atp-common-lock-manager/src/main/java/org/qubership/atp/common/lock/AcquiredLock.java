@@ -0,0 +1,235 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+/**
+ * Lock obtained from the lock provider and held by this JVM.
+ * Optionally renews its lease periodically until released.
+ */
+@Slf4j
+class AcquiredLock {
+
+    /**
+     * Lock manager the lock is obtained by.
+     */
+    private final LockManager lockManager;
+
+    /**
+     * The lock key.
+     */
+    private final String lockKey;
+
+    /**
+     * Lease (lock at most for) requested on each renewal.
+     */
+    private final Duration lease;
+
+    /**
+     * Guard of lock, renewal, released and leaseUntilNanos fields.
+     */
+    private final ReentrantLock guard = new ReentrantLock();
+
+    /**
+     * Current lock; replaced after each successful extension.
+     */
+    private SimpleLock lock;
+
+    /**
+     * Scheduled lease renewal, if any.
+     */
+    private ScheduledFuture<?> renewal;
+
+    /**
+     * Lock is released (true) or not.
+     */
+    private boolean released;
+
+    /**
+     * Time (System.nanoTime) the lock is obtained.
+     */
+    private final long acquiredNanos = System.nanoTime();
+
+    /**
+     * Time the lock is obtained.
+     */
+    private final Instant acquiredAt = Instant.now();
+
+    /**
+     * Name of the thread the lock is obtained by.
+     */
+    private final String holderThread = Thread.currentThread().getName();
+
+    /**
+     * Time (System.nanoTime) the current lease expires; moved forward after each successful extension.
+     */
+    private long leaseUntilNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param lockManager lock manager the lock is obtained by
+     * @param lockKey     the lock key
+     * @param lock        the lock
+     * @param lease       lease requested on each renewal.
+     */
+    AcquiredLock(final LockManager lockManager, final String lockKey, final SimpleLock lock, final Duration lease) {
+        this.lockManager = lockManager;
+        this.lockKey = lockKey;
+        this.lock = lock;
+        this.lease = lease;
+        this.leaseUntilNanos = acquiredNanos + lease.toNanos();
+    }
+
+    /**
+     * Get the lock key.
+     *
+     * @return the lock key.
+     */
+    String getLockKey() {
+        return lockKey;
+    }
+
+    /**
+     * Get the state of the lock.
+     *
+     * @return the lock held, as of now.
+     */
+    HeldLock toHeldLock() {
+        long leaseLeftNanos;
+        guard.lock();
+        try {
+            leaseLeftNanos = leaseUntilNanos - System.nanoTime();
+        } finally {
+            guard.unlock();
+        }
+        return new HeldLock(lockKey, holderThread, acquiredAt, Instant.now().plusNanos(leaseLeftNanos));
+    }
+
+    /**
+     * Renew the lease periodically until the lock is released or the lease can't be renewed.
+     *
+     * @param scheduler      scheduler of renewals
+     * @param intervalMillis renewal interval (milliseconds).
+     */
+    void startRenewal(final ScheduledExecutorService scheduler, final long intervalMillis) {
+        guard.lock();
+        try {
+            renewal = scheduler.scheduleAtFixedRate(this::renew, intervalMillis, intervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } finally {
+            guard.unlock();
+        }
+    }
+
+    /**
+     * Extend the lease: lock is held at most for lease from now.
+     *
+     * @return true if the lease is extended; false if the lock is released or can't be extended.
+     */
+    boolean extend() {
+        guard.lock();
+        try {
+            if (released) {
+                return false;
+            }
+            long extendedNanos = System.nanoTime();
+            Optional<SimpleLock> extended = lock.extend(lease, Duration.ZERO);
+            extended.ifPresent(value -> {
+                lock = value;
+                leaseUntilNanos = extendedNanos + lease.toNanos();
+            });
+            return extended.isPresent();
+        } finally {
+            guard.unlock();
+        }
+    }
+
+    /**
+     * Stop renewal, unlock, wake up local waiters and record hold metrics. Repeated calls have no effect.
+     * The lock is forgotten by the lock manager even if unlock fails; the record is then left to expire.
+     */
+    void release() {
+        long releasedNanos = System.nanoTime();
+        boolean leaseExpired;
+        SimpleLock heldLock;
+        guard.lock();
+        try {
+            if (released) {
+                return;
+            }
+            released = true;
+            leaseExpired = releasedNanos - leaseUntilNanos > 0;
+            if (renewal != null) {
+                renewal.cancel(false);
+            }
+            heldLock = lock;
+        } finally {
+            guard.unlock();
+        }
+        try {
+            heldLock.unlock();
+        } finally {
+            if (leaseExpired) {
+                log.warn("Lease of lock by key '{}' expired before the task was finished", lockKey);
+            }
+            lockManager.released(this, releasedNanos - acquiredNanos, leaseExpired);
+        }
+    }
+
+    private void renew() {
+        try {
+            if (extend()) {
+                log.debug("Lease of lock by key '{}' is extended for {}", lockKey, lease);
+                return;
+            }
+            if (!isReleased()) {
+                log.warn("Cannot extend lease of lock by key '{}'; it may expire before the task is finished",
+                        lockKey);
+            }
+        } catch (UnsupportedOperationException e) {
+            log.warn("Lock provider doesn't support extension of lock by key '{}'", lockKey);
+        } catch (RuntimeException e) {
+            log.warn("Cannot extend lease of lock by key '{}'", lockKey, e);
+        }
+        guard.lock();
+        try {
+            renewal.cancel(false);
+        } finally {
+            guard.unlock();
+        }
+    }
+
+    private boolean isReleased() {
+        guard.lock();
+        try {
+            return released;
+        } finally {
+            guard.unlock();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.qubership.atp.common.lock.exceptions.AtpLockRejectException;
+
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+/**
+ * Non-blocking execution of a callable under the lock.
+ * Acquisition attempts and the callable run on the executor; between attempts no thread is occupied:
+ * the next attempt is scheduled on the shared scheduler after backoff pause, or triggered earlier
+ * when the key is released in this JVM.
+ *
+ * @param <T> the type of callable result
+ */
+@Slf4j
+class AsyncLockTask<T> implements Runnable {
+
+    /**
+     * Lock manager the task belongs to.
+     */
+    private final LockManager lockManager;
+
+    /**
+     * The lock key.
+     */
+    private final String lockKey;
+
+    /**
+     * Lock duration (seconds).
+     */
+    private final Integer lockDurationSec;
+
+    /**
+     * The callable to execute under the lock.
+     */
+    private final Callable<T> callable;
+
+    /**
+     * Executor of attempts and the callable.
+     */
+    private final Executor executor;
+
+    /**
+     * Scheduler of delayed attempts.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Options of retries: backoff and max wait.
+     */
+    private final LockOptions options;
+
+    /**
+     * Number of failed attempts made after the registration in the wait queue; guarded by the attempt sequence.
+     */
+    private int failedAttempts;
+
+    /**
+     * Pause after the previous failed attempt (milliseconds); guarded by the attempt sequence.
+     */
+    private long paceMillis;
+
+    /**
+     * Time (System.nanoTime) the task is created.
+     */
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Number of attempts made so far; guarded by the attempt sequence.
+     */
+    private int attempts;
+
+    /**
+     * Time (System.nanoTime) after which no more attempts are made.
+     */
+    private final long deadlineNanos;
+
+    /**
+     * Deadline of lock waits of the caller thread, carried to the callable; null if there is none.
+     */
+    private final Long callDeadlineNanos;
+
+    /**
+     * Result of the execution.
+     */
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    /**
+     * Registration in the wait queue; created after the first failed attempt.
+     */
+    private volatile LockWaitQueue.Waiter waiter;
+
+    /**
+     * Number of the current wait round; used to resume each round exactly once.
+     */
+    private final AtomicLong round = new AtomicLong();
+
+    /**
+     * Timer of the current wait round.
+     */
+    private volatile ScheduledFuture<?> timer;
+
+    /**
+     * Constructor.
+     *
+     * @param lockManager     lock manager the task belongs to
+     * @param lockKey         the lock key
+     * @param lockDurationSec the lock duration
+     * @param callable        the callable
+     * @param executor        executor of attempts and the callable
+     * @param scheduler       scheduler of delayed attempts
+     * @param options         options of retries.
+     */
+    AsyncLockTask(final LockManager lockManager,
+                  final String lockKey,
+                  final Integer lockDurationSec,
+                  final Callable<T> callable,
+                  final Executor executor,
+                  final ScheduledExecutorService scheduler,
+                  final LockOptions options) {
+        this.lockManager = lockManager;
+        this.lockKey = lockKey;
+        this.lockDurationSec = lockDurationSec;
+        this.callable = callable;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.options = options;
+        this.callDeadlineNanos = lockManager.getCallDeadlineNanos();
+        this.deadlineNanos = lockManager.deadlineNanos(options, callDeadlineNanos);
+        result.whenComplete((value, throwable) -> cleanUp());
+    }
+
+    /**
+     * Submit the first attempt.
+     *
+     * @return future completed with the callable result, or with {@link AtpLockRejectException}
+     *     if the lock isn't obtained within retry timeout.
+     */
+    CompletableFuture<T> start() {
+        submit();
+        return result;
+    }
+
+    /**
+     * Make an acquisition attempt; execute the callable if the lock is obtained, otherwise wait for the next round.
+     */
+    @Override
+    public void run() {
+        if (result.isDone()) {
+            return;
+        }
+        LockWaitQueue.Waiter currentWaiter = waiter;
+        if (currentWaiter != null) {
+            currentWaiter.beforeAttempt();
+        }
+        Optional<SimpleLock> lock;
+        attempts++;
+        try {
+            lock = lockManager.tryAcquire(lockKey, lockDurationSec);
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        if (lock.isPresent()) {
+            execute(lockManager.acquired(lockKey, lock.get(), Duration.ofSeconds(lockDurationSec), startNanos,
+                    attempts));
+        } else if (System.nanoTime() - deadlineNanos >= 0) {
+            log.debug("Cannot obtain lock by key '{}' within retry timeout", lockKey);
+            lockManager.getMetrics().rejected(lockKey);
+            result.completeExceptionally(new AtpLockRejectException("Cannot obtain lock by key " + lockKey));
+        } else if (currentWaiter == null) {
+            // The key may have been released between the attempt and the registration, so retry at once.
+            waiter = lockManager.registerWaiter(lockKey);
+            if (result.isDone()) {
+                waiter.close();
+                return;
+            }
+            if (!lockManager.admit(waiter)) {
+                log.debug("Too many waiters of lock by key '{}'", lockKey);
+                lockManager.getMetrics().rejected(lockKey);
+                result.completeExceptionally(new AtpLockRejectException("Too many waiters of lock by key " + lockKey));
+                return;
+            }
+            submit();
+        } else {
+            awaitNextRound(currentWaiter);
+        }
+    }
+
+    private void execute(final AcquiredLock acquiredLock) {
+        if (result.isDone()) {
+            acquiredLock.release();
+            return;
+        }
+        try {
+            result.complete(lockManager.executeWithCallDeadline(callDeadlineNanos,
+                    () -> lockManager.executeLocked(acquiredLock, callable)));
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void awaitNextRound(final LockWaitQueue.Waiter currentWaiter) {
+        long currentRound = round.get();
+        paceMillis = lockManager.retryPaceMillis(lockKey, options, failedAttempts++, paceMillis);
+        long delayMillis = Math.min(paceMillis,
+                Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime())));
+        try {
+            timer = scheduler.schedule(() -> resume(currentRound), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        currentWaiter.onRelease(() -> resume(currentRound));
+    }
+
+    private void resume(final long currentRound) {
+        if (round.compareAndSet(currentRound, currentRound + 1)) {
+            ScheduledFuture<?> currentTimer = timer;
+            if (currentTimer != null) {
+                currentTimer.cancel(false);
+            }
+            submit();
+        }
+    }
+
+    private void submit() {
+        try {
+            executor.execute(this);
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void cleanUp() {
+        round.incrementAndGet();
+        ScheduledFuture<?> currentTimer = timer;
+        if (currentTimer != null) {
+            currentTimer.cancel(false);
+        }
+        LockWaitQueue.Waiter currentWaiter = waiter;
+        if (currentWaiter != null) {
+            currentWaiter.close();
+        }
+    }
+}
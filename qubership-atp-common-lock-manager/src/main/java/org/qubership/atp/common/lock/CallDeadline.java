@@ -0,0 +1,82 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.atp.common.lock;
+
+import java.util.concurrent.Callable;
+
+import lombok.SneakyThrows;
+
+/**
+ * Deadline of lock waits of the current thread, set for the duration of a call.
+ * Nested calls can only shorten it; work continued on another thread carries the deadline captured by the caller.
+ */
+class CallDeadline {
+
+    /**
+     * Deadline (System.nanoTime) of lock waits of the current thread; null if none.
+     */
+    private final ThreadLocal<Long> deadlineNanos = new ThreadLocal<>();
+
+    /**
+     * Get the deadline of lock waits of the current thread.
+     *
+     * @return the deadline (System.nanoTime), or null if there is none.
+     */
+    Long get() {
+        return deadlineNanos.get();
+    }
+
+    /**
+     * Execute the callable with lock waits of the current thread bounded by the deadline given;
+     * the deadline of the current thread, if any, is kept if it comes earlier.
+     *
+     * @param <T>      the type parameter
+     * @param deadline the deadline (System.nanoTime); null for none
+     * @param callable the callable
+     * @return the result of callable.
+     */
+    @SneakyThrows
+    <T> T execute(final Long deadline, final Callable<T> callable) {
+        Long previousDeadline = deadlineNanos.get();
+        if (deadline != null && (previousDeadline == null || deadline - previousDeadline < 0)) {
+            deadlineNanos.set(deadline);
+        }
+        try {
+            return callable.call();
+        } finally {
+            if (previousDeadline == null) {
+                deadlineNanos.remove();
+            } else {
+                deadlineNanos.set(previousDeadline);
+            }
+        }
+    }
+
+    /**
+     * Get the time (System.nanoTime) after which no more attempts are made by the call started now:
+     * max wait of the options, or the call deadline given if it comes earlier.
+     *
+     * @param options      the lock options
+     * @param callDeadline deadline captured by {@link #get()}; null for none
+     * @return deadline of the call (nanoseconds).
+     */
+    static long deadlineNanos(final LockOptions options, final Long callDeadline) {
+        long deadlineNanos = options.deadlineNanos();
+        return callDeadline == null || deadlineNanos - callDeadline < 0 ? deadlineNanos : callDeadline;
+    }
+}
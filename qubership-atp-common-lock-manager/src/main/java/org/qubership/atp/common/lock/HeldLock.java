@@ -0,0 +1,64 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import java.time.Instant;
+
+import lombok.Getter;
+
+/**
+ * Snapshot of a lock held by this JVM, for diagnostics.
+ */
+@Getter
+public final class HeldLock {
+
+    /**
+     * The lock key.
+     */
+    private final String lockKey;
+
+    /**
+     * Name of the thread the lock is obtained by.
+     */
+    private final String holderThread;
+
+    /**
+     * Time the lock is obtained.
+     */
+    private final Instant acquiredAt;
+
+    /**
+     * Time the current lease expires (lock at most until).
+     */
+    private final Instant lockAtMostUntil;
+
+    /**
+     * Constructor.
+     *
+     * @param lockKey         the lock key
+     * @param holderThread    name of the thread the lock is obtained by
+     * @param acquiredAt      time the lock is obtained
+     * @param lockAtMostUntil time the current lease expires.
+     */
+    HeldLock(final String lockKey, final String holderThread, final Instant acquiredAt,
+             final Instant lockAtMostUntil) {
+        this.lockKey = lockKey;
+        this.holderThread = holderThread;
+        this.acquiredAt = acquiredAt;
+        this.lockAtMostUntil = lockAtMostUntil;
+    }
+}
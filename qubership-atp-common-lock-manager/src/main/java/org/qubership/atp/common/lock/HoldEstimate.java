@@ -0,0 +1,132 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import java.time.Duration;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Estimate of hold time of locks with the same key prefix: exponentially weighted moving average
+ * and mean deviation of observed hold times, as TCP estimates round-trip time.
+ * Instances are immutable; each observation makes a new one.
+ */
+@Getter
+public final class HoldEstimate {
+
+    /**
+     * Weight of a new observation in the average.
+     */
+    private static final double MEAN_GAIN = 0.125;
+
+    /**
+     * Weight of a new observation in the mean deviation.
+     */
+    private static final double DEVIATION_GAIN = 0.25;
+
+    /**
+     * Number of mean deviations above the average covering nearly all hold times.
+     */
+    private static final int DEVIATION_FACTOR = 4;
+
+    /**
+     * Safety factor of the suggested lease over nearly max hold time.
+     */
+    private static final int LEASE_FACTOR = 2;
+
+    /**
+     * The key prefix.
+     */
+    private final String keyPrefix;
+
+    /**
+     * Number of hold times observed.
+     */
+    private final long samples;
+
+    /**
+     * Average hold time.
+     */
+    private final Duration meanHold;
+
+    /**
+     * Mean deviation of hold time.
+     */
+    private final Duration holdDeviation;
+
+    /**
+     * Suggested lock duration (lock at most for): twice the sum of the average and four mean deviations.
+     */
+    private final Duration suggestedLease;
+
+    /**
+     * Average hold time (nanoseconds).
+     */
+    @Getter(AccessLevel.NONE)
+    private final double meanNanos;
+
+    /**
+     * Mean deviation of hold time (nanoseconds).
+     */
+    @Getter(AccessLevel.NONE)
+    private final double deviationNanos;
+
+    private HoldEstimate(final String keyPrefix, final long samples, final double meanNanos,
+                         final double deviationNanos) {
+        this.keyPrefix = keyPrefix;
+        this.samples = samples;
+        this.meanNanos = meanNanos;
+        this.deviationNanos = deviationNanos;
+        this.meanHold = Duration.ofNanos(Math.round(meanNanos));
+        this.holdDeviation = Duration.ofNanos(Math.round(deviationNanos));
+        this.suggestedLease = Duration.ofNanos(Math.round(LEASE_FACTOR * (meanNanos
+                + DEVIATION_FACTOR * deviationNanos)));
+    }
+
+    /**
+     * Get the estimate of the first observation.
+     *
+     * @param keyPrefix the key prefix
+     * @param holdNanos hold time observed (nanoseconds)
+     * @return new estimate.
+     */
+    static HoldEstimate first(final String keyPrefix, final long holdNanos) {
+        return new HoldEstimate(keyPrefix, 1, holdNanos, holdNanos / 2.0);
+    }
+
+    /**
+     * Get the estimate updated with the observation.
+     *
+     * @param holdNanos hold time observed (nanoseconds)
+     * @return new estimate.
+     */
+    HoldEstimate next(final long holdNanos) {
+        double error = holdNanos - meanNanos;
+        return new HoldEstimate(keyPrefix, samples + 1, meanNanos + MEAN_GAIN * error,
+                deviationNanos + DEVIATION_GAIN * (Math.abs(error) - deviationNanos));
+    }
+
+    /**
+     * Get the average hold time.
+     *
+     * @return average hold time (milliseconds).
+     */
+    long meanHoldMillis() {
+        return Math.round(meanNanos / 1_000_000);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.qubership.atp.common.lock.metrics.LockKeyTagExtractor;
+
+/**
+ * Hold time estimates of this JVM by key prefix. The number of prefixes is bounded: once it's reached,
+ * keys of new prefixes are accounted under {@link LockKeyTagExtractor#OTHER_TAG}.
+ * Estimates are replaced by compare-and-set, so observations never block each other.
+ */
+final class HoldStatistics {
+
+    /**
+     * Max number of key prefixes.
+     */
+    static final int MAX_PREFIXES = 256;
+
+    /**
+     * Min number of observations for an estimate to be used.
+     */
+    static final int MIN_SAMPLES = 5;
+
+    /**
+     * Estimates by key prefix.
+     */
+    private final Map<String, AtomicReference<HoldEstimate>> estimates = new ConcurrentHashMap<>();
+
+    /**
+     * Extractor of the key prefix from the lock key.
+     */
+    private volatile LockKeyTagExtractor prefixExtractor = LockKeyTagExtractor.DEFAULT;
+
+    /**
+     * Set extractor of the key prefix.
+     *
+     * @param prefixExtractor extractor of the key prefix from the lock key.
+     */
+    void setPrefixExtractor(final LockKeyTagExtractor prefixExtractor) {
+        this.prefixExtractor = prefixExtractor;
+    }
+
+    /**
+     * Record hold time of the lock released.
+     *
+     * @param lockKey   the lock key
+     * @param holdNanos time the lock was held (nanoseconds).
+     */
+    void record(final String lockKey, final long holdNanos) {
+        String prefix = prefixExtractor.extract(lockKey);
+        AtomicReference<HoldEstimate> estimate = estimates.get(prefix);
+        if (estimate == null) {
+            if (estimates.size() >= MAX_PREFIXES) {
+                prefix = LockKeyTagExtractor.OTHER_TAG;
+            }
+            estimate = estimates.computeIfAbsent(prefix, key -> new AtomicReference<>());
+        }
+        String estimatePrefix = prefix;
+        estimate.updateAndGet(current -> current == null
+                ? HoldEstimate.first(estimatePrefix, holdNanos)
+                : current.next(holdNanos));
+    }
+
+    /**
+     * Get the estimate of hold time of the key.
+     *
+     * @param lockKey the lock key
+     * @return the estimate of its prefix; null if there are too few observations.
+     */
+    HoldEstimate get(final String lockKey) {
+        AtomicReference<HoldEstimate> estimate = estimates.get(prefixExtractor.extract(lockKey));
+        HoldEstimate current = estimate == null ? null : estimate.get();
+        return current == null || current.getSamples() < MIN_SAMPLES ? null : current;
+    }
+
+    /**
+     * Get estimates of all key prefixes.
+     *
+     * @return estimates, as of now.
+     */
+    List<HoldEstimate> snapshot() {
+        List<HoldEstimate> snapshot = new ArrayList<>(estimates.size());
+        estimates.values().forEach(estimate -> {
+            HoldEstimate current = estimate.get();
+            if (current != null) {
+                snapshot.add(current);
+            }
+        });
+        return snapshot;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.atp.common.lock;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+/**
+ * Local per-key locks serializing callers of this JVM before the lock provider.
+ * Only the local winner calls the lock provider; the local lock is held until the provider lock is released,
+ * or released at once if the provider lock isn't obtained.
+ */
+@Slf4j
+class LocalLocks {
+
+    /**
+     * Local locks are taken before the lock provider (true) or lock provider is called directly.
+     */
+    @Setter
+    private volatile boolean enabled;
+
+    /**
+     * Keys locked locally, i.e. keys for which a caller of this JVM holds or is obtaining the provider lock.
+     */
+    private final Set<String> lockKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Obtain the provider lock of the key under the local lock of the key, if enabled.
+     *
+     * @param lockKey      the lock key
+     * @param providerLock attempt to obtain the lock from the lock provider
+     * @return the lock if obtained, otherwise empty.
+     */
+    Optional<SimpleLock> lock(final String lockKey, final Supplier<Optional<SimpleLock>> providerLock) {
+        if (!enabled) {
+            return providerLock.get();
+        }
+        if (!lockKeys.add(lockKey)) {
+            log.debug("Lock by key '{}' is held or being obtained by another caller of this JVM", lockKey);
+            return Optional.empty();
+        }
+        Optional<SimpleLock> lock = Optional.empty();
+        try {
+            lock = providerLock.get();
+            return lock;
+        } finally {
+            if (lock.isEmpty()) {
+                lockKeys.remove(lockKey);
+            }
+        }
+    }
+
+    /**
+     * Obtain provider locks of all keys under local locks of the keys, if enabled; either all of them or none.
+     *
+     * @param keys          the lock keys
+     * @param providerLocks attempt to obtain locks of all keys from the lock provider
+     * @return locks in the order of keys if obtained, otherwise empty.
+     */
+    Optional<List<SimpleLock>> lockAll(final List<String> keys,
+                                       final Supplier<Optional<List<SimpleLock>>> providerLocks) {
+        if (!enabled) {
+            return providerLocks.get();
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            if (!lockKeys.add(keys.get(i))) {
+                log.debug("Lock by key '{}' is held or being obtained by another caller of this JVM", keys.get(i));
+                keys.subList(0, i).forEach(lockKeys::remove);
+                return Optional.empty();
+            }
+        }
+        Optional<List<SimpleLock>> locks = Optional.empty();
+        try {
+            locks = providerLocks.get();
+            return locks;
+        } finally {
+            if (locks.isEmpty()) {
+                keys.forEach(lockKeys::remove);
+            }
+        }
+    }
+
+    /**
+     * Release the local lock of the key, if any.
+     *
+     * @param lockKey the lock key
+     * @return true if the key was locked locally; otherwise false.
+     */
+    boolean unlock(final String lockKey) {
+        return lockKeys.remove(lockKey);
+    }
+}
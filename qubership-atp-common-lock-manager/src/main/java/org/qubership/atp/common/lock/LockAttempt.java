@@ -0,0 +1,86 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+/**
+ * Outcome of a single attempt to execute a callable with lock: either the lock isn't obtained,
+ * or the callable is executed with the result given.
+ *
+ * @param <T> the type of the callable result
+ */
+final class LockAttempt<T> {
+
+    /**
+     * Shared outcome of attempts the lock isn't obtained by.
+     */
+    private static final LockAttempt<?> REJECTED = new LockAttempt<>(true, null);
+
+    /**
+     * Lock isn't obtained (true) or the callable is executed (false).
+     */
+    private final boolean rejected;
+
+    /**
+     * Result of the callable executed.
+     */
+    private final T result;
+
+    private LockAttempt(final boolean rejected, final T result) {
+        this.rejected = rejected;
+        this.result = result;
+    }
+
+    /**
+     * Get outcome of the attempt the lock isn't obtained by.
+     *
+     * @param <T> the type of the callable result
+     * @return rejected attempt.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> LockAttempt<T> rejected() {
+        return (LockAttempt<T>) REJECTED;
+    }
+
+    /**
+     * Get outcome of the attempt the callable is executed by.
+     *
+     * @param <T>    the type of the callable result
+     * @param result the result of callable
+     * @return executed attempt.
+     */
+    static <T> LockAttempt<T> executed(final T result) {
+        return new LockAttempt<>(false, result);
+    }
+
+    /**
+     * Check whether the lock isn't obtained.
+     *
+     * @return true if the lock isn't obtained; false if the callable is executed.
+     */
+    boolean isRejected() {
+        return rejected;
+    }
+
+    /**
+     * Get the result of callable.
+     *
+     * @return the result of callable; null if the attempt is rejected.
+     */
+    T getResult() {
+        return result;
+    }
+}
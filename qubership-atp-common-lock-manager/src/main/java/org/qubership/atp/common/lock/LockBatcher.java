@@ -0,0 +1,322 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.atp.common.lock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.qubership.atp.common.lock.provider.BatchLockProvider;
+
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+/**
+ * Coalescing of single lock attempts of concurrent callers into batch calls of a {@link BatchLockProvider}.
+ * The caller finding no open batch opens one and leads it: it waits for the batch window or until the batch is full,
+ * closes the batch, and makes the lock provider calls of the whole batch. Other callers only join the open batch
+ * and wait for its result; a caller finding the batch closed opens the next one, so it never waits behind
+ * a lock provider call already in flight. Exclusive, shared and in-turn attempts are batched by separate calls.
+ */
+class LockBatcher {
+
+    /**
+     * Lock provider obtaining locks of a batch at once.
+     */
+    private final BatchLockProvider lockProvider;
+
+    /**
+     * Time the leader of a batch waits for other callers to join it (nanoseconds).
+     */
+    private final long windowNanos;
+
+    /**
+     * Max number of lock attempts of one batch.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * Batch open for other callers to join, if any.
+     */
+    private final AtomicReference<Batch> openBatch = new AtomicReference<>();
+
+    /**
+     * Constructor.
+     *
+     * @param lockProvider lock provider obtaining locks of a batch at once
+     * @param window       time the leader of a batch waits for other callers to join it
+     * @param maxBatchSize max number of lock attempts of one batch.
+     */
+    LockBatcher(final BatchLockProvider lockProvider, final Duration window, final int maxBatchSize) {
+        this.lockProvider = lockProvider;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Try to obtain the lock once, as a part of a batch.
+     *
+     * @param lockConfiguration configuration of the lock
+     * @return the lock if obtained, otherwise empty.
+     */
+    Optional<SimpleLock> lock(final LockConfiguration lockConfiguration) {
+        return submit(new Request(Kind.EXCLUSIVE, lockConfiguration, null, null));
+    }
+
+    /**
+     * Try to obtain the shared lock once, as a part of a batch.
+     *
+     * @param lockConfiguration configuration of the lock
+     * @return the lock if obtained, otherwise empty.
+     */
+    Optional<SimpleLock> lockShared(final LockConfiguration lockConfiguration) {
+        return submit(new Request(Kind.SHARED, lockConfiguration, null, null));
+    }
+
+    /**
+     * Try to obtain the lock once in turn of the waiter, as a part of a batch.
+     *
+     * @param lockConfiguration configuration of the lock
+     * @param waiterId          unique id of the waiter
+     * @param turnTimeout       time the waiter keeps its place without further attempts
+     * @return the lock if obtained, otherwise empty.
+     */
+    Optional<SimpleLock> lockInTurn(final LockConfiguration lockConfiguration, final String waiterId,
+                                    final Duration turnTimeout) {
+        return submit(new Request(Kind.IN_TURN, lockConfiguration, waiterId, turnTimeout));
+    }
+
+    private Optional<SimpleLock> submit(final Request request) {
+        while (true) {
+            Batch batch = openBatch.get();
+            if (batch != null) {
+                Admission admission = batch.admit(request, maxBatchSize);
+                if (admission == Admission.ADDED) {
+                    return request.await();
+                }
+                if (admission == Admission.DUPLICATE) {
+                    call(List.of(request));
+                    return request.await();
+                }
+            }
+            Batch next = new Batch(request);
+            if (openBatch.compareAndSet(batch, next)) {
+                lead(next);
+                return request.await();
+            }
+        }
+    }
+
+    /**
+     * Wait for other callers to join the batch, close it and make its lock attempts.
+     */
+    private void lead(final Batch batch) {
+        try {
+            batch.close(windowNanos);
+            openBatch.compareAndSet(batch, null);
+            call(batch.requests);
+        } finally {
+            for (Request request : batch.requests) {
+                request.result.completeExceptionally(new IllegalStateException("Batch lock attempt isn't made"));
+            }
+        }
+    }
+
+    /**
+     * Make lock attempts of the requests, with one lock provider call per kind of attempts.
+     */
+    private void call(final List<Request> requests) {
+        for (Kind kind : Kind.values()) {
+            List<Request> group = new ArrayList<>();
+            List<LockConfiguration> lockConfigurations = new ArrayList<>();
+            for (Request request : requests) {
+                if (request.kind == kind) {
+                    group.add(request);
+                    lockConfigurations.add(request.lockConfiguration);
+                }
+            }
+            if (group.isEmpty()) {
+                continue;
+            }
+            try {
+                List<Optional<SimpleLock>> locks = switch (kind) {
+                    case EXCLUSIVE -> lockProvider.lockEach(lockConfigurations);
+                    case SHARED -> lockProvider.lockEachShared(lockConfigurations);
+                    case IN_TURN -> lockProvider.lockEachInTurn(lockConfigurations,
+                            group.stream().map(request -> request.waiterId).toList(),
+                            group.stream().map(request -> request.turnTimeout).toList());
+                };
+                for (int i = 0; i < group.size(); i++) {
+                    group.get(i).result.complete(locks.get(i));
+                }
+            } catch (RuntimeException | Error e) {
+                for (Request request : group) {
+                    request.result.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Kind of lock attempt.
+     */
+    private enum Kind {
+        EXCLUSIVE, SHARED, IN_TURN
+    }
+
+    /**
+     * Result of joining a batch.
+     */
+    private enum Admission {
+        /**
+         * The request joined the batch.
+         */
+        ADDED,
+        /**
+         * The batch is closed.
+         */
+        CLOSED,
+        /**
+         * The batch has an exclusive attempt for the same name, so the request is made alone.
+         */
+        DUPLICATE
+    }
+
+    /**
+     * Lock attempts made together; the list of requests is guarded by the batch until it's closed.
+     */
+    private static final class Batch {
+
+        /**
+         * Lock attempts of the batch.
+         */
+        private final List<Request> requests = new ArrayList<>();
+
+        /**
+         * Names of exclusive and in-turn attempts of the batch.
+         */
+        private final Set<String> exclusiveNames = new HashSet<>();
+
+        /**
+         * The batch is closed for other callers (true) or not.
+         */
+        private boolean closed;
+
+        private Batch(final Request leaderRequest) {
+            add(leaderRequest);
+        }
+
+        private synchronized Admission admit(final Request request, final int maxBatchSize) {
+            if (closed) {
+                return Admission.CLOSED;
+            }
+            if (request.kind != Kind.SHARED && exclusiveNames.contains(request.lockConfiguration.getName())) {
+                return Admission.DUPLICATE;
+            }
+            add(request);
+            if (requests.size() >= maxBatchSize) {
+                closed = true;
+                notifyAll();
+            }
+            return Admission.ADDED;
+        }
+
+        private void add(final Request request) {
+            requests.add(request);
+            if (request.kind != Kind.SHARED) {
+                exclusiveNames.add(request.lockConfiguration.getName());
+            }
+        }
+
+        /**
+         * Wait until the batch is full or the window is over, and close it.
+         */
+        private synchronized void close(final long windowNanos) {
+            long deadline = System.nanoTime() + windowNanos;
+            long left;
+            try {
+                while (!closed && (left = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, left);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            closed = true;
+        }
+    }
+
+    /**
+     * Lock attempt of a caller.
+     */
+    private static final class Request {
+
+        /**
+         * Kind of the attempt.
+         */
+        private final Kind kind;
+
+        /**
+         * Configuration of the lock.
+         */
+        private final LockConfiguration lockConfiguration;
+
+        /**
+         * Unique id of the waiter of an in-turn attempt.
+         */
+        private final String waiterId;
+
+        /**
+         * Time the waiter of an in-turn attempt keeps its place without further attempts.
+         */
+        private final Duration turnTimeout;
+
+        /**
+         * The lock if obtained, otherwise empty.
+         */
+        private final CompletableFuture<Optional<SimpleLock>> result = new CompletableFuture<>();
+
+        private Request(final Kind kind, final LockConfiguration lockConfiguration, final String waiterId,
+                        final Duration turnTimeout) {
+            this.kind = kind;
+            this.lockConfiguration = lockConfiguration;
+            this.waiterId = waiterId;
+            this.turnTimeout = turnTimeout;
+        }
+
+        private Optional<SimpleLock> await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+    }
+}
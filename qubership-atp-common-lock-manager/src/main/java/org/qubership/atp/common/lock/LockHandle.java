@@ -0,0 +1,73 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+/**
+ * Handle of a lock obtained by {@link LockManager#tryLock} or {@link LockManager#lock}.
+ * The lock is held until the handle is closed, so it can span code which isn't a single callable,
+ * e.g. a streaming pipeline; use it with try-with-resources where possible.
+ */
+public final class LockHandle implements AutoCloseable {
+
+    /**
+     * The lock key.
+     */
+    private final String lockKey;
+
+    /**
+     * The lock held.
+     */
+    private final AcquiredLock acquiredLock;
+
+    /**
+     * Constructor.
+     *
+     * @param lockKey      the lock key
+     * @param acquiredLock the lock held.
+     */
+    LockHandle(final String lockKey, final AcquiredLock acquiredLock) {
+        this.lockKey = lockKey;
+        this.acquiredLock = acquiredLock;
+    }
+
+    /**
+     * Get the lock key.
+     *
+     * @return the lock key.
+     */
+    public String getLockKey() {
+        return lockKey;
+    }
+
+    /**
+     * Renew the lease: the lock is held at most for the lease from now.
+     *
+     * @return true if the lease is renewed; false if the lock is released or has expired.
+     * @throws UnsupportedOperationException in case the lock provider doesn't support extension.
+     */
+    public boolean extend() {
+        return acquiredLock.extend();
+    }
+
+    /**
+     * Release the lock and wake up local waiters. Repeated calls have no effect.
+     */
+    @Override
+    public void close() {
+        acquiredLock.release();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.atp.common.lock;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Locks held by the current thread while executing tasks, for reentrant executions.
+ * The hold of a key is created by the outermost execution, which is the only one releasing the lock;
+ * nested executions with the key only count themselves.
+ */
+class LockHolds {
+
+    /**
+     * Holds of the current thread by lock key; null if there are none.
+     */
+    private final ThreadLocal<Map<String, LockHold>> heldLocks = new ThreadLocal<>();
+
+    /**
+     * Get number of holds of the lock by the current thread, i.e. the number of nested executions with the lock.
+     *
+     * @param lockKey the lock key
+     * @return number of holds; 0 if the lock isn't held by the current thread.
+     */
+    int getHoldCount(final String lockKey) {
+        Map<String, LockHold> holds = heldLocks.get();
+        LockHold hold = holds == null ? null : holds.get(lockKey);
+        return hold == null ? 0 : hold.count;
+    }
+
+    /**
+     * Check that the lock of the kind given doesn't upgrade read lock held by the current thread to write lock.
+     *
+     * @param lockKey the lock key
+     * @param shared  the lock is shared (read lock) or exclusive
+     * @throws IllegalStateException if read lock of the key is held and exclusive lock is requested.
+     */
+    void checkNotUpgraded(final String lockKey, final boolean shared) {
+        Map<String, LockHold> holds = heldLocks.get();
+        LockHold hold = holds == null ? null : holds.get(lockKey);
+        if (hold != null && hold.shared && !shared) {
+            throw new IllegalStateException("Read lock by key '" + lockKey
+                    + "' is held by the current thread and can't be upgraded to write lock");
+        }
+    }
+
+    /**
+     * Execute the callable holding locks of the keys given, and release the locks acquired afterwards.
+     * Keys already held by the current thread are reentered; others get holds of the locks acquired for them.
+     *
+     * @param <T>           the type parameter
+     * @param lockKeys      the lock keys
+     * @param shared        the locks acquired are shared (read locks) or exclusive
+     * @param acquiredLocks locks acquired for keys not held by the current thread, in the order of keys
+     * @param callable      the callable
+     * @return the result of callable
+     * @throws Exception in case the callable throws it.
+     */
+    <T> T executeHolding(final List<String> lockKeys, final boolean shared, final List<AcquiredLock> acquiredLocks,
+                         final Callable<T> callable) throws Exception {
+        Map<String, LockHold> holds = heldLocks.get();
+        if (holds == null) {
+            holds = new HashMap<>();
+            heldLocks.set(holds);
+        }
+        Map<String, LockHold> acquiredHolds = new HashMap<>();
+        for (String lockKey : lockKeys) {
+            LockHold hold = holds.get(lockKey);
+            if (hold == null) {
+                hold = new LockHold(shared);
+                holds.put(lockKey, hold);
+                acquiredHolds.put(lockKey, hold);
+            } else {
+                hold.count++;
+            }
+        }
+        try {
+            return callable.call();
+        } finally {
+            for (String lockKey : lockKeys) {
+                LockHold acquiredHold = acquiredHolds.get(lockKey);
+                if (acquiredHold == null) {
+                    holds.get(lockKey).count--;
+                } else {
+                    holds.remove(lockKey, acquiredHold);
+                }
+            }
+            if (holds.isEmpty()) {
+                heldLocks.remove();
+            }
+            for (int i = acquiredLocks.size() - 1; i >= 0; i--) {
+                acquiredLocks.get(i).release();
+            }
+        }
+    }
+
+    /**
+     * Hold of a lock by the current thread: the kind of the lock and the number of nested executions with it.
+     * The outermost execution removes the hold only if it's still the same instance, so the hold itself
+     * identifies the acquisition.
+     */
+    private static final class LockHold {
+
+        /**
+         * Lock is shared (read lock) or exclusive.
+         */
+        private final boolean shared;
+
+        /**
+         * Number of holds, including the outermost one.
+         */
+        private int count = 1;
+
+        private LockHold(final boolean shared) {
+            this.shared = shared;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+/**
+ * Normalization of lock keys to the max key size of lock providers.
+ * Long keys keep a readable prefix followed by a fixed-width hash of the full key, so different keys
+ * never share a compacted key unless their hashes collide. Compacted keys are cached, since most keys
+ * come from a few call sites.
+ */
+final class LockKeys {
+
+    /**
+     * Max key size in DB (is character varying(100) actually).
+     */
+    static final int MAX_KEY_SIZE = 99;
+
+    /**
+     * Separator of the readable prefix and the hash in compacted keys.
+     */
+    private static final char HASH_SEPARATOR = '~';
+
+    /**
+     * Size of the hash in compacted keys: 64 bits in hex.
+     */
+    private static final int HASH_SIZE = 16;
+
+    /**
+     * Max number of compacted keys cached.
+     */
+    private static final int CACHE_SIZE = 1024;
+
+    /**
+     * Radix of the node id and sequence numbers of unique keys.
+     */
+    private static final int UNIQUE_RADIX = 36;
+
+    /**
+     * Number of random bits dropped from the node id, to keep it at most 8 characters long.
+     */
+    private static final int NODE_ID_SHIFT = 23;
+
+    /**
+     * Id of this JVM, random on each start; makes unique keys unique across nodes.
+     */
+    private static final String NODE_ID = Long.toString(new SecureRandom().nextLong() >>> NODE_ID_SHIFT,
+            UNIQUE_RADIX);
+
+    /**
+     * Sequence number of the last unique key of this JVM.
+     */
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    /**
+     * Compacted keys by full key; only keys longer than max key size are cached.
+     */
+    private static final Cache<String, String> COMPACTED = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+    /**
+     * Compacted prefixes of unique keys by lock key; the suffix only grows, so a prefix is valid
+     * as long as it fits max key size with the current suffix.
+     */
+    private static final Cache<String, String> UNIQUE_PREFIXES = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE).build();
+
+    private LockKeys() {
+    }
+
+    /**
+     * Get the key fitting max key size.
+     *
+     * @param lockKey the lock key
+     * @return the lock key if it fits max key size; otherwise its readable prefix and hash.
+     */
+    static String compact(final String lockKey) {
+        if (lockKey.length() <= MAX_KEY_SIZE) {
+            return lockKey;
+        }
+        String compacted = COMPACTED.getIfPresent(lockKey);
+        if (compacted == null) {
+            compacted = compact(lockKey, MAX_KEY_SIZE);
+            COMPACTED.put(lockKey, compacted);
+        }
+        return compacted;
+    }
+
+    /**
+     * Get a key unique across calls and nodes: the lock key, compacted if needed,
+     * followed by the node id and the next sequence number of this JVM.
+     *
+     * @param lockKey the lock key
+     * @return the unique key fitting max key size.
+     */
+    static String unique(final String lockKey) {
+        String suffix = " " + NODE_ID + "-" + Long.toString(SEQUENCE.incrementAndGet(), UNIQUE_RADIX);
+        int maxSize = MAX_KEY_SIZE - suffix.length();
+        if (lockKey.length() <= maxSize) {
+            return lockKey + suffix;
+        }
+        String compacted = UNIQUE_PREFIXES.getIfPresent(lockKey);
+        if (compacted == null || compacted.length() > maxSize) {
+            compacted = compact(lockKey, maxSize);
+            UNIQUE_PREFIXES.put(lockKey, compacted);
+        }
+        return compacted + suffix;
+    }
+
+    private static String compact(final String lockKey, final int maxSize) {
+        int prefixSize = maxSize - HASH_SIZE - 1;
+        if (Character.isHighSurrogate(lockKey.charAt(prefixSize - 1))) {
+            prefixSize--;
+        }
+        String hash = String.format("%016x", Hashing.murmur3_128().hashString(lockKey, StandardCharsets.UTF_8)
+                .asLong());
+        return lockKey.substring(0, prefixSize) + HASH_SEPARATOR + hash;
+    }
+}
@@ -17,26 +17,42 @@
 package org.qubership.atp.common.lock;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import org.qubership.atp.common.lock.exceptions.AtpLockRejectException;
-import org.springframework.retry.RetryPolicy;
-import org.springframework.retry.backoff.BackOffPolicy;
-import org.springframework.retry.backoff.FixedBackOffPolicy;
-import org.springframework.retry.policy.CompositeRetryPolicy;
-import org.springframework.retry.policy.SimpleRetryPolicy;
-import org.springframework.retry.policy.TimeoutRetryPolicy;
-import org.springframework.retry.support.RetryTemplate;
+import org.qubership.atp.common.lock.metrics.LockKeyTagExtractor;
+import org.qubership.atp.common.lock.provider.BatchLockProvider;
+import org.qubership.atp.common.lock.provider.FairLockProvider;
+import org.qubership.atp.common.lock.provider.InMemoryLockProvider;
+import org.qubership.atp.common.lock.provider.SharedLockProvider;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import net.javacrumbs.shedlock.core.DefaultLockingTaskExecutor;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.LockProvider;
-import net.javacrumbs.shedlock.core.LockingTaskExecutor;
+import net.javacrumbs.shedlock.core.SimpleLock;
 
 @Slf4j
 @SuppressWarnings("checkstyle:HiddenField")
@@ -58,14 +74,167 @@ public class LockManager {
     private final Integer retryPaceSec;
 
     /**
-     * Executor of tasks.
+     * Lock provider.
      */
-    private DefaultLockingTaskExecutor defaultLockingTaskExecutor;
+    private final LockProvider lockProvider;
 
     /**
-     * Max key size in DB (is character varying(100) actually).
+     * Options of calls without options given; built of default lock duration, retry timeout and retry pace.
+     * Lease of the options is used only by calls without lock duration given.
      */
-    private static final int MAX_KEY_SIZE = 99;
+    @Getter
+    @Setter
+    private volatile LockOptions defaultOptions;
+
+    /**
+     * Recorder of lock metrics.
+     */
+    @Getter
+    @Setter
+    private LockMetrics metrics = LockMetrics.NOOP;
+
+    /**
+     * Named lock options profiles.
+     */
+    private final Map<String, LockOptions> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * Interval of lease renewal while the task is running (seconds); 0 or null means no renewal.
+     */
+    @Setter
+    private Integer leaseRenewalIntervalSec;
+
+    /**
+     * Local per-key locks taken before the lock provider, if enabled.
+     */
+    private final LocalLocks localLocks = new LocalLocks();
+
+    /**
+     * Max number of callers of this JVM waiting for the same key at once; 0 means no limit.
+     * Callers beyond it are rejected without wait.
+     */
+    @Setter
+    private int maxWaitersPerKey;
+
+    /**
+     * Max number of callers of this JVM waiting for any keys at once; 0 means no limit.
+     * Callers beyond it are rejected without wait.
+     */
+    @Setter
+    private int maxWaiters;
+
+    /**
+     * Hold time estimates by key prefix.
+     */
+    private final HoldStatistics holdStatistics = new HoldStatistics();
+
+    /**
+     * Pause between attempts follows the estimated hold time of the key (true) or lock options only (false).
+     */
+    @Setter
+    private boolean adaptiveRetryPace;
+
+    /**
+     * Calls without lock duration given use the lease suggested by the estimated hold time of the key (true)
+     * or the default lock duration (false).
+     */
+    @Setter
+    private boolean adaptiveLease;
+
+    /**
+     * Coalescing of single lock attempts into batched lock provider calls; null if lease batching is disabled.
+     */
+    private volatile LockBatcher leaseBatcher;
+
+    /**
+     * Deadline of lock waits of the current thread, set by executeWithMaxWait.
+     */
+    private final CallDeadline callDeadline = new CallDeadline();
+
+    /**
+     * Locks held by the current thread while executing tasks.
+     */
+    private final LockHolds holds = new LockHolds();
+
+    /**
+     * Acquisition of locks of several keys at once.
+     */
+    private final MultiKeyLocks multiKeyLocks;
+
+    /**
+     * Acquisition of permits of keys.
+     */
+    private final PermitLocks permitLocks;
+
+    /**
+     * Acquisition of read (shared) locks.
+     */
+    private final ReadWriteLocks readWriteLocks;
+
+    /**
+     * Locks held by this JVM, i.e. obtained and not released yet.
+     */
+    private final Set<AcquiredLock> acquiredLocks = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Scheduler of delayed lock attempts made by asynchronous executions; shared by all of them.
+     */
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * Default executor of asynchronous executions (a virtual thread per task).
+     */
+    private final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * In-JVM waiters of lock keys.
+     */
+    private final LockWaitQueue waitQueue = new LockWaitQueue();
+
+    /**
+     * Executions in progress of single-flight callers by lock key.
+     */
+    private final Map<String, CompletableFuture<Object>> singleFlights = new ConcurrentHashMap<>();
+
+    /**
+     * Lock provider notifies waitQueue about released locks itself (true) or not.
+     */
+    private final boolean providerNotifiesRelease;
+
+    /**
+     * Time of the last rejection logged at error level (milliseconds).
+     */
+    private final AtomicLong lastRejectionLogMillis = new AtomicLong();
+
+    /**
+     * Number of rejections logged at debug level only since the last one logged at error level.
+     */
+    private final AtomicLong notLoggedRejections = new AtomicLong();
+
+    /**
+     * Min interval between rejections logged at error level (milliseconds).
+     */
+    private static final long REJECTION_LOG_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * Min pause between attempts with adaptive retry pace (milliseconds).
+     */
+    private static final long MIN_ADAPTIVE_PACE_MILLIS = 10;
+
+    /**
+     * Min lease with adaptive lease (seconds); leaves margin for short locks delayed by GC pauses and the like.
+     */
+    private static final int MIN_ADAPTIVE_LEASE_SEC = 5;
+
+    /**
+     * Milliseconds per second.
+     */
+    private static final long MILLIS_PER_SECOND = 1000;
+
+    /**
+     * Min time a fair waiter keeps its place in the queue of the lock provider between attempts (milliseconds).
+     */
+    private static final long MIN_TURN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(1);
 
     /**
      * Instantiates a new Lock manager.
@@ -82,7 +251,24 @@ public class LockManager {
         this.defaultLockDurationSec = defaultLockDurationSec;
         this.retryTimeoutSec = retryTimeoutSec;
         this.retryPaceSec = retryPaceSec;
-        this.defaultLockingTaskExecutor = new DefaultLockingTaskExecutor(lockProvider);
+        this.lockProvider = lockProvider;
+        this.defaultOptions = LockOptions.builder()
+                .lease(Duration.ofSeconds(defaultLockDurationSec))
+                .maxWait(Duration.ofSeconds(retryTimeoutSec))
+                .retryPace(Duration.ofSeconds(retryPaceSec))
+                .build();
+        this.scheduler = new ScheduledThreadPoolExecutor(1,
+                new ThreadFactoryBuilder().setNameFormat("atp-lock-scheduler-%d").setDaemon(true).build());
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        this.multiKeyLocks = new MultiKeyLocks(this, lockProvider, localLocks, holds);
+        this.permitLocks = new PermitLocks(this, holds);
+        this.readWriteLocks = new ReadWriteLocks(this, lockProvider);
+        if (lockProvider instanceof InMemoryLockProvider inMemoryLockProvider) {
+            inMemoryLockProvider.addUnlockListener(waitQueue::signal);
+            this.providerNotifiesRelease = true;
+        } else {
+            this.providerNotifiesRelease = false;
+        }
     }
 
     /**
@@ -98,7 +284,7 @@ public class LockManager {
                                        final Callable<T> callable,
                                        final Supplier<T> defaultOnReject) {
         log.debug("start executeWithLockNoWait(lockKey: {})", lockKey);
-        return executeWithLockNoWait(lockKey, defaultLockDurationSec, callable, defaultOnReject);
+        return executeWithLockNoWait(lockKey, defaultLeaseSec(lockKey), callable, defaultOnReject);
     }
 
     /**
@@ -109,7 +295,7 @@ public class LockManager {
      */
     public void executeWithLockNoWait(final String lockKey, final Runnable runnable) {
         log.debug("start executeWithLockNoWait(lockKey: {}, Runnable)", lockKey);
-        executeWithLockNoWait(lockKey, defaultLockDurationSec, runnable);
+        executeWithLockNoWait(lockKey, defaultLeaseSec(lockKey), runnable);
     }
 
     /**
@@ -125,12 +311,12 @@ public class LockManager {
     public <T> T executeWithLockNoWait(final String lockKey, final Integer lockDuration, final Callable<T> callable,
                                        final Supplier<T> defaultOnReject) {
         log.debug("start executeWithLockNoWait(lockKey: {}, lockDuration: {})", lockKey, lockDuration);
-        try {
-            return executeWithLock(lockKey, lockDuration, callable);
-        } catch (AtpLockRejectException e) {
-            log.error("Cannot obtain lock by key {}. Lock duration {} sec.", lockKey, lockDuration);
+        LockAttempt<T> attempt = attemptWithLock(lockKey, lockDuration, callable);
+        if (attempt.isRejected()) {
+            rejected("Cannot obtain lock by key {}. Lock duration {} sec.", lockKey, lockDuration);
             return defaultOnReject.get();
         }
+        return attempt.getResult();
     }
 
     /**
@@ -142,11 +328,10 @@ public class LockManager {
      */
     public void executeWithLockNoWait(final String lockKey, final Integer lockDuration, final Runnable runnable) {
         log.debug("start executeWithLockNoWait(lockKey: {}, lockDuration: {}, Runnable)", lockKey, lockDuration);
-        try {
-            executeWithLock(lockKey, lockDuration, runnable);
-        } catch (AtpLockRejectException e) {
-            log.error("Cannot obtain lock by key {}. Lock duration {} sec.", lockKey, lockDuration);
-        }
+        executeWithLockNoWait(lockKey, lockDuration, () -> {
+            runnable.run();
+            return null;
+        }, () -> null);
     }
 
     /**
@@ -160,7 +345,7 @@ public class LockManager {
      */
     public <T> T executeWithLock(final String lockKey, final Callable<T> callable, final Supplier<T> defaultOnReject) {
         log.debug("start executeWithLock(lockKey: {})", lockKey);
-        return executeWithLock(lockKey, defaultLockDurationSec, callable, defaultOnReject);
+        return executeWithLock(lockKey, defaultLeaseSec(lockKey), callable, defaultOnReject);
     }
 
     /**
@@ -171,11 +356,13 @@ public class LockManager {
      */
     public void executeWithLock(final String lockKey, final Runnable runnable) {
         log.debug("start executeWithLock(lockKey: {}, Runnable)", lockKey);
-        executeWithLock(lockKey, defaultLockDurationSec, runnable);
+        executeWithLock(lockKey, defaultLeaseSec(lockKey), runnable);
     }
 
     /**
      * Execute with lock, and wait if busy.
+     * Waiting caller is woken up as soon as the lock is released in this JVM;
+     * locks held by other nodes are polled with retry pace.
      *
      * @param <T>             the type parameter
      * @param lockKey         the lock key
@@ -188,15 +375,179 @@ public class LockManager {
                                  final Supplier<T> defaultOnReject) {
         log.debug("start executeWithLock(lockKey: {}, lockDurationSec: {})", lockKey, lockDurationSec);
         try {
-            return getRetryTemplate()
-                    .execute(retryContext -> executeWithLock(lockKey, lockDurationSec, callable));
+            return executeWithLockWaiting(lockKey, Duration.ofSeconds(lockDurationSec), defaultOptions, callable);
+        } catch (AtpLockRejectException e) {
+            rejected("Cannot obtain lock by key {}. Lock duration {} sec. Returning default value.", lockKey,
+                    lockDurationSec);
+            return defaultOnReject.get();
+        }
+    }
+
+    /**
+     * Execute with lock, and wait if busy, as configured by the options given.
+     * Waiting caller is woken up as soon as the lock is released in this JVM;
+     * locks held by other nodes are polled with backoff of the options.
+     *
+     * @param <T>             the type parameter
+     * @param lockKey         the lock key
+     * @param options         the lock options, e.g. one of {@link #getOptions(String)} profiles
+     * @param callable        the callable
+     * @param defaultOnReject the default on reject
+     * @return the result of callable
+     */
+    public <T> T executeWithLock(final String lockKey, final LockOptions options, final Callable<T> callable,
+                                 final Supplier<T> defaultOnReject) {
+        log.debug("start executeWithLock(lockKey: {}, lease: {}, maxWait: {})", lockKey, options.getLease(),
+                options.getMaxWait());
+        try {
+            return executeWithLockWaiting(lockKey, options.getLease(), options, callable);
         } catch (AtpLockRejectException e) {
-            log.error("Cannot obtain lock by key {}. Lock duration {} sec. Returning default value.", lockKey,
-                    lockDurationSec, e);
+            rejected("Cannot obtain lock by key {}. Lock duration {}. Returning default value.", lockKey,
+                    options.getLease());
             return defaultOnReject.get();
         }
     }
 
+    /**
+     * Execute with lock, and wait if busy, as configured by the options given.
+     *
+     * @param lockKey  the lock key
+     * @param options  the lock options
+     * @param runnable the runnable
+     */
+    public void executeWithLock(final String lockKey, final LockOptions options, final Runnable runnable) {
+        executeWithLock(lockKey, options, () -> {
+            runnable.run();
+            return null;
+        }, () -> null);
+    }
+
+    /**
+     * Serialize callers of this JVM through a local per-key lock before the lock provider (true) or not.
+     * Only the local winner calls the lock provider; other local callers wait for the local release.
+     *
+     * @param localLockFirst take the local lock first (true) or call the lock provider directly.
+     */
+    public void setLocalLockFirst(final boolean localLockFirst) {
+        localLocks.setEnabled(localLockFirst);
+    }
+
+    /**
+     * Enable or disable lease batching: single lock attempts of concurrent callers, arriving within the window
+     * of the first one, are made with one {@link BatchLockProvider} call per kind of attempts (exclusive, shared,
+     * in turn). The first caller leads the batch and makes the call; a caller arriving after the batch is closed
+     * opens the next one rather than waiting for the call in flight. It saves round trips of DB-backed lock providers
+     * under bursts of distinct keys, at the cost of the window added to each attempt.
+     * It requires a {@link BatchLockProvider}; otherwise it's ignored. Locks of several keys at once aren't batched.
+     *
+     * @param window       time the first caller waits for other callers to join the batch
+     * @param maxBatchSize max number of lock attempts of one lock provider call; 1 or less disables batching.
+     */
+    public void setLeaseBatching(final Duration window, final int maxBatchSize) {
+        if (maxBatchSize <= 1) {
+            leaseBatcher = null;
+        } else if (lockProvider instanceof BatchLockProvider batchLockProvider) {
+            leaseBatcher = new LockBatcher(batchLockProvider, window, maxBatchSize);
+        } else {
+            log.warn("Lease batching is ignored: lock provider {} doesn't obtain locks in batches",
+                    lockProvider.getClass().getName());
+        }
+    }
+
+    /**
+     * Get hold time estimates by key prefix, observed by this JVM.
+     *
+     * @return estimates, as of now.
+     */
+    public List<HoldEstimate> getHoldEstimates() {
+        return holdStatistics.snapshot();
+    }
+
+    /**
+     * Set extractor of the key prefix by which hold time estimates are kept, e.g. the one of lock metrics.
+     *
+     * @param keyPrefixExtractor extractor of the key prefix from the lock key.
+     */
+    public void setKeyPrefixExtractor(final LockKeyTagExtractor keyPrefixExtractor) {
+        holdStatistics.setPrefixExtractor(keyPrefixExtractor);
+    }
+
+    /**
+     * Execute the callable with lock waits of the current thread bounded by max wait from now,
+     * e.g. by the time left to serve a request. Calls of the lock manager made by the callable give up waiting
+     * at that deadline, even if max wait of their options is longer; nested calls can only shorten it.
+     * The deadline is captured when a call is made, so it also bounds retries of executeWithLockAsync calls
+     * and lock calls of their callables, and waits of {@link ReactiveLockManager} calls made by the callable,
+     * even if they are subscribed to later on another thread. Other work the callable hands over to other threads
+     * isn't bounded.
+     *
+     * @param <T>      the type parameter
+     * @param maxWait  max time the callable may wait for locks in total
+     * @param callable the callable
+     * @return the result of callable.
+     */
+    public <T> T executeWithMaxWait(final Duration maxWait, final Callable<T> callable) {
+        return executeWithCallDeadline(System.nanoTime() + maxWait.toNanos(), callable);
+    }
+
+    /**
+     * Get the deadline of lock waits of the current thread set by {@link #executeWithMaxWait(Duration, Callable)},
+     * to carry it to work continued on another thread.
+     *
+     * @return the deadline (System.nanoTime), or null if there is none.
+     */
+    Long getCallDeadlineNanos() {
+        return callDeadline.get();
+    }
+
+    /**
+     * Execute the callable with lock waits of the current thread bounded by the deadline given;
+     * the deadline of the current thread, if any, is kept if it comes earlier.
+     *
+     * @param <T>           the type parameter
+     * @param deadlineNanos the deadline (System.nanoTime); null for none
+     * @param callable      the callable
+     * @return the result of callable.
+     */
+    <T> T executeWithCallDeadline(final Long deadlineNanos, final Callable<T> callable) {
+        return callDeadline.execute(deadlineNanos, callable);
+    }
+
+    /**
+     * Get lock options profile by name.
+     *
+     * @param profile the profile name
+     * @return lock options of the profile.
+     * @throws IllegalArgumentException if there is no profile with the name given.
+     */
+    public LockOptions getOptions(final String profile) {
+        LockOptions options = profiles.get(profile);
+        if (options == null) {
+            throw new IllegalArgumentException("Unknown lock options profile: " + profile);
+        }
+        return options;
+    }
+
+    /**
+     * Set named lock options profiles; replaces profiles set before.
+     *
+     * @param profiles lock options by profile name.
+     */
+    public void setProfiles(final Map<String, LockOptions> profiles) {
+        this.profiles.clear();
+        this.profiles.putAll(profiles);
+    }
+
+    /**
+     * Get number of holds of the lock by the current thread, i.e. the number of nested executions with the lock.
+     *
+     * @param lockKey the lock key
+     * @return number of holds; 0 if the lock isn't held by the current thread.
+     */
+    public int getHoldCount(final String lockKey) {
+        return holds.getHoldCount(lockKey);
+    }
+
     /**
      * Execute with lock.
      *
@@ -211,65 +562,819 @@ public class LockManager {
         }, () -> null);
     }
 
+    /**
+     * Execute with lock once per concurrent callers of the key in this JVM, and wait if busy.
+     *
+     * @param <T>      the type parameter
+     * @param lockKey  the lock key
+     * @param callable the callable
+     * @return the result of callable
+     * @throws AtpLockRejectException if the lock isn't obtained within retry timeout.
+     */
+    public <T> T executeSingleFlight(final String lockKey, final Callable<T> callable) {
+        return executeSingleFlight(lockKey, defaultLeaseSec(lockKey), callable);
+    }
+
+    /**
+     * Execute with lock once per concurrent callers of the key in this JVM, and wait if busy.
+     * If the key is already being executed in this JVM, the caller waits for that execution
+     * and gets its result or exception instead of executing the callable once more.
+     * Callers arriving after the execution is finished start a new one.
+     * Suitable for idempotent work only, e.g. refresh of a cache.
+     *
+     * @param <T>             the type parameter
+     * @param lockKey         the lock key
+     * @param lockDurationSec the lock duration
+     * @param callable        the callable
+     * @return the result of callable
+     * @throws AtpLockRejectException if the lock isn't obtained within retry timeout.
+     */
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public <T> T executeSingleFlight(final String lockKey, final Integer lockDurationSec,
+                                     final Callable<T> callable) {
+        log.debug("start executeSingleFlight(lockKey: {}, lockDurationSec: {})", lockKey, lockDurationSec);
+        if (getHoldCount(lockKey) > 0) {
+            log.debug("Lock by key '{}' is already held by the current thread", lockKey);
+            return callable.call();
+        }
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> currentFlight = singleFlights.putIfAbsent(lockKey, flight);
+        if (currentFlight != null) {
+            log.debug("Key '{}' is already being executed, waiting for its result", lockKey);
+            try {
+                return (T) currentFlight.get();
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+        try {
+            T result = executeWithLockWaiting(lockKey, Duration.ofSeconds(lockDurationSec), defaultOptions, callable);
+            singleFlights.remove(lockKey, flight);
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            singleFlights.remove(lockKey, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private <T> T executeWithLockWaiting(final String lockKey, final Duration lease, final LockOptions options,
+                                         final Callable<T> callable) {
+        return executeWithLockWaiting(lockKey, lease, options, false, callable);
+    }
+
+    /**
+     * Execute with lock, and wait if busy, as configured by the options given.
+     *
+     * @param <T>      the type parameter
+     * @param lockKey  the lock key
+     * @param lease    the lock duration
+     * @param options  the lock options
+     * @param shared   the lock is shared (read lock) or exclusive
+     * @param callable the callable
+     * @return the result of callable
+     * @throws AtpLockRejectException if the lock isn't obtained within max wait.
+     */
     @SneakyThrows
-    private <T> T executeWithLock(final String lockKey, final Integer lockDuration, final Callable<T> callable) {
-        log.debug("start executeWithLock(lockKey: {}, lockDuration: {})", lockKey, lockDuration);
-        Duration lockAtMostUntil = Duration.ofSeconds(lockDuration);
-        Duration lockAtLeastFor = Duration.ZERO;
+    <T> T executeWithLockWaiting(final String lockKey, final Duration lease, final LockOptions options,
+                                 final boolean shared, final Callable<T> callable) {
+        long deadlineNanos = deadlineNanos(options);
+        boolean fair = options.isFair() && !shared;
+        boolean localTurns = !shared && hasLocalTurns(options);
+        LockWait wait = new LockWait(fair ? UUID.randomUUID().toString() : null);
+        try (LockWaitQueue.Waiter waiter = waitQueue.register(lockKey)) {
+            long paceMillis = 0;
+            for (int attemptNumber = 0; ; attemptNumber++) {
+                waiter.beforeAttempt();
+                long nextPaceMillis = retryPaceMillis(lockKey, options, attemptNumber, paceMillis);
+                if (!localTurns || waiter.isFirst() || getHoldCount(lockKey) > 0) {
+                    wait.attempt();
+                    wait.setTurnTimeout(turnTimeout(nextPaceMillis));
+                    LockAttempt<T> attempt = attemptWithLock(lockKey, lease, options.getMinHold(), shared, wait,
+                            callable);
+                    if (!attempt.isRejected()) {
+                        return attempt.getResult();
+                    }
+                }
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    throw new AtpLockRejectException("Cannot obtain lock by key " + lockKey);
+                }
+                checkAdmitted(List.of(waiter), lockKey);
+                paceMillis = nextPaceMillis;
+                waiter.await(Math.min(paceMillis, TimeUnit.NANOSECONDS.toMillis(remainingNanos)));
+            }
+        } finally {
+            if (fair) {
+                leaveQueue(lockKey, wait.getWaiterId());
+            }
+        }
+    }
+
+    /**
+     * Check whether fair waiters with the options given take turns within this JVM only.
+     * Fair lock provider orders waiters of all nodes, so each of them keeps its place there by attempts;
+     * otherwise fair waiter makes attempts only when all waiters of this JVM registered earlier are done.
+     *
+     * @param options the lock options
+     * @return true if the waiter makes attempts only when it's the first one in this JVM.
+     */
+    boolean hasLocalTurns(final LockOptions options) {
+        return options.isFair() && !(lockProvider instanceof FairLockProvider);
+    }
+
+    /**
+     * Get the time a fair waiter keeps its place in the queue of the lock provider without further attempts.
+     *
+     * @param nextPaceMillis pause before the next attempt (milliseconds)
+     * @return turn timeout.
+     */
+    static Duration turnTimeout(final long nextPaceMillis) {
+        return Duration.ofMillis(Math.max(MIN_TURN_TIMEOUT_MILLIS, nextPaceMillis * 2));
+    }
 
-        LockConfiguration lockConfiguration = new LockConfiguration(lockKey, lockAtMostUntil, lockAtLeastFor);
+    /**
+     * Remove the fair waiter from the queue of the lock provider, if it's a {@link FairLockProvider}.
+     *
+     * @param lockKey  the lock key
+     * @param waiterId unique id of the waiter
+     */
+    void leaveQueue(final String lockKey, final String waiterId) {
+        if (lockProvider instanceof FairLockProvider fairLockProvider) {
+            fairLockProvider.leaveQueue(LockKeys.compact(lockKey), waiterId);
+        }
+    }
 
-        LockingTaskExecutor.TaskResult<T> taskResult =
-                defaultLockingTaskExecutor.executeWithLock(callable::call, lockConfiguration);
+    private <T> LockAttempt<T> attemptWithLock(final String lockKey, final Integer lockDuration,
+                                               final Callable<T> callable) {
+        return attemptWithLock(lockKey, Duration.ofSeconds(lockDuration), Duration.ZERO, callable);
+    }
+
+    private <T> LockAttempt<T> attemptWithLock(final String lockKey, final Duration lockAtMostFor,
+                                               final Duration lockAtLeastFor, final Callable<T> callable) {
+        return attemptWithLock(lockKey, lockAtMostFor, lockAtLeastFor, false, null, callable);
+    }
+
+    /**
+     * Make a single attempt to obtain the lock and execute the callable with it.
+     * If the lock is already held by the current thread, it's reentered.
+     *
+     * @param <T>            the type parameter
+     * @param lockKey        the lock key
+     * @param lockAtMostFor  the lock duration
+     * @param lockAtLeastFor min time the lock is held
+     * @param shared         the lock is shared (read lock) or exclusive
+     * @param wait           wait of the caller for metrics and turn; null for a call without wait
+     * @param callable       the callable
+     * @return result of the callable if the lock is obtained, otherwise rejected attempt.
+     */
+    @SneakyThrows
+    <T> LockAttempt<T> attemptWithLock(final String lockKey, final Duration lockAtMostFor,
+                                       final Duration lockAtLeastFor, final boolean shared,
+                                       final LockWait wait, final Callable<T> callable) {
+        log.debug("start attemptWithLock(lockKey: {}, lockAtMostFor: {}, shared: {})", lockKey, lockAtMostFor,
+                shared);
+        holds.checkNotUpgraded(lockKey, shared);
+        if (holds.getHoldCount(lockKey) > 0) {
+            log.debug("Lock by key '{}' is already held by the current thread, hold count: {}", lockKey,
+                    holds.getHoldCount(lockKey) + 1);
+            return LockAttempt.executed(holds.executeHolding(List.of(lockKey), shared, Collections.emptyList(),
+                    callable));
+        }
+        Optional<SimpleLock> lock = shared
+                ? readWriteLocks.tryAcquireShared(lockKey, lockAtMostFor, lockAtLeastFor)
+                : wait != null && wait.getWaiterId() != null
+                ? tryAcquireInTurn(lockKey, lockAtMostFor, lockAtLeastFor, wait)
+                : tryAcquire(lockKey, lockAtMostFor, lockAtLeastFor);
 
-        log.debug("end executeWithLock(lockKey: {}, lockDuration: {}), taskResult.wasExecuted: {}",
-                lockKey, lockDuration, taskResult.wasExecuted());
-        if (!taskResult.wasExecuted()) {
+        log.debug("end attemptWithLock(lockKey: {}, lockAtMostFor: {}), lock is obtained: {}",
+                lockKey, lockAtMostFor, lock.isPresent());
+        if (lock.isEmpty()) {
             log.debug("Cannot obtain lock by key '{}'", lockKey);
-            throw new AtpLockRejectException("Cannot obtain lock by key " + lockKey);
-        } else {
-            return taskResult.getResult();
+            return LockAttempt.rejected();
+        }
+        AcquiredLock acquiredLock = wait == null
+                ? acquired(lockKey, lock.get(), lockAtMostFor, System.nanoTime(), 1)
+                : acquired(lockKey, lock.get(), lockAtMostFor, wait.getStartNanos(), wait.getAttempts());
+        return LockAttempt.executed(holds.executeHolding(List.of(lockKey), shared, List.of(acquiredLock),
+                callable));
+    }
+
+    /**
+     * Execute with read (shared) lock, and wait if the write lock is held.
+     *
+     * @param <T>             the type parameter
+     * @param lockKey         the lock key
+     * @param callable        the callable
+     * @param defaultOnReject the default on reject
+     * @return the result of callable
+     */
+    public <T> T executeWithReadLock(final String lockKey, final Callable<T> callable,
+                                     final Supplier<T> defaultOnReject) {
+        return executeWithReadLock(lockKey, defaultOptions, callable, defaultOnReject);
+    }
+
+    /**
+     * Execute with read (shared) lock, and wait if the write lock is held, as configured by the options given.
+     * Any number of callers can hold read locks of the key at once, while the write lock is exclusive.
+     * If the lock provider doesn't implement {@link SharedLockProvider}, read lock is exclusive too.
+     * Read lock held by the current thread can't be upgraded to write lock.
+     *
+     * @param <T>             the type parameter
+     * @param lockKey         the lock key
+     * @param options         the lock options
+     * @param callable        the callable
+     * @param defaultOnReject the default on reject
+     * @return the result of callable
+     */
+    public <T> T executeWithReadLock(final String lockKey, final LockOptions options, final Callable<T> callable,
+                                     final Supplier<T> defaultOnReject) {
+        log.debug("start executeWithReadLock(lockKey: {}, lease: {}, maxWait: {})", lockKey, options.getLease(),
+                options.getMaxWait());
+        try {
+            return readWriteLocks.executeWithReadLock(lockKey, options, callable);
+        } catch (AtpLockRejectException e) {
+            rejected("Cannot obtain read lock by key {}. Lock duration {}. Returning default value.", lockKey,
+                    options.getLease());
+            return defaultOnReject.get();
         }
     }
 
     /**
-     * Execute with lock. Current time mills will be added to lock key.
+     * Execute with write (exclusive) lock, and wait if any read or write lock is held.
+     *
+     * @param <T>             the type parameter
+     * @param lockKey         the lock key
+     * @param callable        the callable
+     * @param defaultOnReject the default on reject
+     * @return the result of callable
+     */
+    public <T> T executeWithWriteLock(final String lockKey, final Callable<T> callable,
+                                      final Supplier<T> defaultOnReject) {
+        return executeWithLock(lockKey, defaultOptions, callable, defaultOnReject);
+    }
+
+    /**
+     * Execute with write (exclusive) lock, and wait if any read or write lock is held,
+     * as configured by the options given. It's the same lock as the one of {@link #executeWithLock}.
+     *
+     * @param <T>             the type parameter
+     * @param lockKey         the lock key
+     * @param options         the lock options
+     * @param callable        the callable
+     * @param defaultOnReject the default on reject
+     * @return the result of callable
+     */
+    public <T> T executeWithWriteLock(final String lockKey, final LockOptions options, final Callable<T> callable,
+                                      final Supplier<T> defaultOnReject) {
+        return executeWithLock(lockKey, options, callable, defaultOnReject);
+    }
+
+    /**
+     * Execute with locks of all keys given, and wait if any of them is busy.
      *
+     * @param <T>             the type parameter
+     * @param lockKeys        the lock keys
+     * @param callable        the callable
+     * @param defaultOnReject the default on reject
+     * @return the result of callable
+     */
+    public <T> T executeWithLocks(final Collection<String> lockKeys, final Callable<T> callable,
+                                  final Supplier<T> defaultOnReject) {
+        return executeWithLocks(lockKeys, defaultOptions, callable, defaultOnReject);
+    }
+
+    /**
+     * Execute with locks of all keys given, and wait if any of them is busy, as configured by the options given.
+     * Keys are locked in their natural order, so concurrent callers with intersecting keys can't deadlock;
+     * if any key is busy, keys locked by the attempt are unlocked and the whole set is retried after backoff.
+     * Lock providers implementing {@link BatchLockProvider} obtain the whole set at once.
+     * Keys already held by the current thread are reentered. Min hold of the options isn't applied.
+     *
+     * @param <T>             the type parameter
+     * @param lockKeys        the lock keys
+     * @param options         the lock options
+     * @param callable        the callable
+     * @param defaultOnReject the default on reject
+     * @return the result of callable
+     */
+    public <T> T executeWithLocks(final Collection<String> lockKeys, final LockOptions options,
+                                  final Callable<T> callable, final Supplier<T> defaultOnReject) {
+        log.debug("start executeWithLocks(lockKeys: {}, lease: {}, maxWait: {})", lockKeys, options.getLease(),
+                options.getMaxWait());
+        try {
+            return multiKeyLocks.execute(new ArrayList<>(new TreeSet<>(lockKeys)), options, callable);
+        } catch (AtpLockRejectException e) {
+            lockKeys.forEach(metrics::rejected);
+            logRejection("Cannot obtain locks by keys {}. Lock duration {}. Returning default value.",
+                    String.valueOf(lockKeys), options.getLease());
+            return defaultOnReject.get();
+        }
+    }
+
+    private Integer defaultLeaseSec(final String lockKey) {
+        HoldEstimate estimate = adaptiveLease ? holdStatistics.get(lockKey) : null;
+        if (estimate == null) {
+            return defaultLockDurationSec;
+        }
+        long suggestedSec = (estimate.getSuggestedLease().toMillis() + MILLIS_PER_SECOND - 1) / MILLIS_PER_SECOND;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_ADAPTIVE_LEASE_SEC, suggestedSec));
+    }
+
+    /**
+     * Admit the waiters given to wait between attempts, unless limits of waiters are reached.
+     *
+     * @param waiters  the waiters registered
+     * @param lockKeys the lock keys of the waiters, for the message
+     * @throws AtpLockRejectException if any of the waiters isn't admitted.
+     */
+    void checkAdmitted(final List<LockWaitQueue.Waiter> waiters, final Object lockKeys) {
+        for (LockWaitQueue.Waiter waiter : waiters) {
+            if (!admit(waiter)) {
+                throw new AtpLockRejectException("Too many waiters of lock by key " + lockKeys);
+            }
+        }
+    }
+
+    /**
+     * Execute with one of permits of the key, and wait if all of them are busy.
+     *
+     * @param <T>             the type parameter
+     * @param lockKey         the lock key
+     * @param permits         number of permits, i.e. max number of concurrent executions with the key
+     * @param callable        the callable
+     * @param defaultOnReject the default on reject
+     * @return the result of callable
+     */
+    public <T> T executeWithPermit(final String lockKey, final int permits, final Callable<T> callable,
+                                   final Supplier<T> defaultOnReject) {
+        return executeWithPermit(lockKey, permits, defaultOptions, callable, defaultOnReject);
+    }
+
+    /**
+     * Execute with one of permits of the key, and wait if all of them are busy, as configured by the options given.
+     * Each permit is a lock of its own slot key 'lockKey#i' (i from 0 to permits - 1), so any lock provider
+     * limits executions across the cluster; slots are tried from a random one to spread callers.
+     * All callers of the key must use the same number of permits.
+     * If the current thread already holds a permit of the key, it's reentered.
+     *
+     * @param <T>             the type parameter
+     * @param lockKey         the lock key
+     * @param permits         number of permits, i.e. max number of concurrent executions with the key
+     * @param options         the lock options
+     * @param callable        the callable
+     * @param defaultOnReject the default on reject
+     * @return the result of callable
+     */
+    public <T> T executeWithPermit(final String lockKey, final int permits, final LockOptions options,
+                                   final Callable<T> callable, final Supplier<T> defaultOnReject) {
+        log.debug("start executeWithPermit(lockKey: {}, permits: {}, lease: {}, maxWait: {})", lockKey, permits,
+                options.getLease(), options.getMaxWait());
+        if (permits < 1) {
+            throw new IllegalArgumentException("Number of permits must be positive, but is " + permits);
+        }
+        try {
+            return permitLocks.execute(lockKey, permits, options, callable);
+        } catch (AtpLockRejectException e) {
+            rejected("Cannot obtain permit by key {}. Lock duration {}. Returning default value.", lockKey,
+                    options.getLease());
+            return defaultOnReject.get();
+        }
+    }
+
+    /**
+     * Try to obtain the lock once, without wait.
+     * The lock is held until the handle is closed, e.g. by try-with-resources, and may be released by any thread.
+     * Unlike executeWithLock, it isn't reentrant: the lock held by the handle isn't known to the current thread.
+     *
+     * @param lockKey the lock key
+     * @param lease   the lock duration
+     * @return handle of the lock if obtained, otherwise empty.
+     */
+    public Optional<LockHandle> tryLock(final String lockKey, final Duration lease) {
+        return tryAcquire(lockKey, lease).map(lock -> new LockHandle(lockKey,
+                acquired(lockKey, lock, lease, System.nanoTime(), 1)));
+    }
+
+    /**
+     * Obtain the lock, and wait if busy.
+     *
+     * @param lockKey the lock key
+     * @param lease   the lock duration
+     * @param maxWait max time during which the lock is tried to be obtained
+     * @return handle of the lock; it must be closed to release the lock.
+     * @throws AtpLockRejectException in case the lock isn't obtained within max wait.
+     */
+    public LockHandle lock(final String lockKey, final Duration lease, final Duration maxWait) {
+        return lock(lockKey, defaultOptions.toBuilder().lease(lease).maxWait(maxWait).build());
+    }
+
+    /**
+     * Obtain the lock, and wait if busy, as configured by the options given.
+     * The lock is held until the handle is closed, e.g. by try-with-resources, and may be released by any thread.
+     * Unlike executeWithLock, it isn't reentrant: the lock held by the handle isn't known to the current thread.
+     *
+     * @param lockKey the lock key
+     * @param options the lock options
+     * @return handle of the lock; it must be closed to release the lock.
+     * @throws AtpLockRejectException in case the lock isn't obtained within max wait.
+     */
+    @SneakyThrows
+    public LockHandle lock(final String lockKey, final LockOptions options) {
+        log.debug("start lock(lockKey: {}, lease: {}, maxWait: {})", lockKey, options.getLease(),
+                options.getMaxWait());
+        long startNanos = System.nanoTime();
+        long deadlineNanos = deadlineNanos(options);
+        try (LockWaitQueue.Waiter waiter = waitQueue.register(lockKey)) {
+            long paceMillis = 0;
+            for (int attemptNumber = 0; ; attemptNumber++) {
+                waiter.beforeAttempt();
+                Optional<SimpleLock> lock = tryAcquire(lockKey, options.getLease(), options.getMinHold());
+                if (lock.isPresent()) {
+                    return new LockHandle(lockKey,
+                            acquired(lockKey, lock.get(), options.getLease(), startNanos, attemptNumber + 1));
+                }
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    log.debug("Cannot obtain lock by key '{}' within max wait", lockKey);
+                    metrics.rejected(lockKey);
+                    throw new AtpLockRejectException("Cannot obtain lock by key " + lockKey);
+                }
+                if (!admit(waiter)) {
+                    log.debug("Too many waiters of lock by key '{}'", lockKey);
+                    metrics.rejected(lockKey);
+                    throw new AtpLockRejectException("Too many waiters of lock by key " + lockKey);
+                }
+                paceMillis = retryPaceMillis(lockKey, options, attemptNumber, paceMillis);
+                waiter.await(Math.min(paceMillis, TimeUnit.NANOSECONDS.toMillis(remainingNanos)));
+            }
+        }
+    }
+
+    /**
+     * Execute with lock asynchronously, and wait if busy without blocking the calling thread.
+     *
+     * @param <T>      the type parameter
      * @param lockKey  the lock key
-     * @param runnable the runnable
+     * @param callable the callable
+     * @return future completed with the result of callable, or with {@link AtpLockRejectException}
+     *     if the lock isn't obtained within retry timeout.
      */
-    public void executeWithLockWithUniqueLockKey(final String lockKey, final Runnable runnable) {
-        String lockKeyWithTimeMills = lockKey + " " + System.currentTimeMillis();
-        String preparedLockKey = lockKeyWithTimeMills.length() > MAX_KEY_SIZE
-                ? lockKeyWithTimeMills.substring(0, MAX_KEY_SIZE) : lockKeyWithTimeMills;
-        log.debug("start executeWithLock(lockKey: {}, preparedLockKey: {} Runnable)", lockKey, preparedLockKey);
-        executeWithLock(preparedLockKey, defaultLockDurationSec, runnable);
+    public <T> CompletableFuture<T> executeWithLockAsync(final String lockKey, final Callable<T> callable) {
+        return executeWithLockAsync(lockKey, defaultLeaseSec(lockKey), callable);
+    }
+
+    /**
+     * Execute with lock asynchronously, and wait if busy without blocking the calling thread.
+     * Attempts and the callable run on virtual threads.
+     *
+     * @param <T>             the type parameter
+     * @param lockKey         the lock key
+     * @param lockDurationSec the lock duration
+     * @param callable        the callable
+     * @return future completed with the result of callable, or with {@link AtpLockRejectException}
+     *     if the lock isn't obtained within retry timeout.
+     */
+    public <T> CompletableFuture<T> executeWithLockAsync(final String lockKey, final Integer lockDurationSec,
+                                                         final Callable<T> callable) {
+        return executeWithLockAsync(lockKey, lockDurationSec, callable, asyncExecutor);
+    }
+
+    /**
+     * Execute with lock asynchronously, and wait if busy without blocking the calling thread.
+     * No thread is occupied between attempts: the next attempt is scheduled after retry pace,
+     * or made as soon as the lock is released in this JVM.
+     * Cancelling the future stops further attempts.
+     *
+     * @param <T>             the type parameter
+     * @param lockKey         the lock key
+     * @param lockDurationSec the lock duration
+     * @param callable        the callable
+     * @param executor        executor of attempts and the callable
+     * @return future completed with the result of callable, or with {@link AtpLockRejectException}
+     *     if the lock isn't obtained within retry timeout.
+     */
+    public <T> CompletableFuture<T> executeWithLockAsync(final String lockKey, final Integer lockDurationSec,
+                                                         final Callable<T> callable, final Executor executor) {
+        log.debug("start executeWithLockAsync(lockKey: {}, lockDurationSec: {})", lockKey, lockDurationSec);
+        return new AsyncLockTask<>(this, lockKey, lockDurationSec, callable, executor, scheduler, defaultOptions)
+                .start();
     }
 
-    private RetryTemplate getRetryTemplate() {
-        RetryTemplate retryTemplate = new RetryTemplate();
+    /**
+     * Stop the scheduler and the default executor of asynchronous executions.
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        asyncExecutor.shutdown();
+    }
 
-        retryTemplate.setBackOffPolicy(getFixedBackOffPolicy());
-        retryTemplate.setRetryPolicy(getRetryPolicy());
+    /**
+     * Get locks held by this JVM.
+     *
+     * @return locks obtained by this lock manager and not released yet, as of now.
+     */
+    public List<HeldLock> getHeldLocks() {
+        List<HeldLock> heldLockList = new ArrayList<>(acquiredLocks.size());
+        acquiredLocks.forEach(acquiredLock -> heldLockList.add(acquiredLock.toHeldLock()));
+        return heldLockList;
+    }
 
-        return retryTemplate;
+    /**
+     * Get in-JVM waiters of lock keys.
+     *
+     * @return waiters of keys having at least one waiter, as of now.
+     */
+    public List<LockWaiters> getWaiters() {
+        return waitQueue.snapshot();
     }
 
-    private RetryPolicy getRetryPolicy() {
-        TimeoutRetryPolicy timeoutRetryPolicy = new TimeoutRetryPolicy();
-        timeoutRetryPolicy.setTimeout(TimeUnit.SECONDS.toMillis(retryTimeoutSec));
+    /**
+     * Release locks of the key held by this JVM, e.g. leaked handles or tasks stuck under the lock.
+     * Tasks holding the locks aren't interrupted: they continue without the lock, and their own release
+     * has no effect then. Locks held by other nodes aren't affected.
+     *
+     * @param lockKey the lock key
+     * @return number of locks released.
+     */
+    public int forceRelease(final String lockKey) {
+        int releasedCount = 0;
+        for (AcquiredLock acquiredLock : acquiredLocks) {
+            if (acquiredLock.getLockKey().equals(lockKey)) {
+                acquiredLock.release();
+                releasedCount++;
+            }
+        }
+        if (releasedCount > 0) {
+            log.warn("{} lock(s) by key '{}' are released by force", releasedCount, lockKey);
+        }
+        return releasedCount;
+    }
 
-        SimpleRetryPolicy exceptionTypeRetryPolicy = new SimpleRetryPolicy(Integer.MAX_VALUE,
-                Collections.singletonMap(AtpLockRejectException.class, true));
+    /**
+     * Try to obtain the lock once.
+     *
+     * @param lockKey         the lock key
+     * @param lockDurationSec the lock duration
+     * @return the lock if obtained, otherwise empty.
+     */
+    Optional<SimpleLock> tryAcquire(final String lockKey, final Integer lockDurationSec) {
+        return tryAcquire(lockKey, Duration.ofSeconds(lockDurationSec));
+    }
 
-        CompositeRetryPolicy compositeRetryPolicy = new CompositeRetryPolicy();
-        compositeRetryPolicy.setPolicies(new RetryPolicy[]{timeoutRetryPolicy, exceptionTypeRetryPolicy});
-        return compositeRetryPolicy;
+    /**
+     * Try to obtain the lock once.
+     *
+     * @param lockKey       the lock key
+     * @param lockAtMostFor the lock duration
+     * @return the lock if obtained, otherwise empty.
+     */
+    Optional<SimpleLock> tryAcquire(final String lockKey, final Duration lockAtMostFor) {
+        return tryAcquire(lockKey, lockAtMostFor, Duration.ZERO);
     }
 
-    private BackOffPolicy getFixedBackOffPolicy() {
-        FixedBackOffPolicy fixedBackOffPolicy = new FixedBackOffPolicy();
-        fixedBackOffPolicy.setBackOffPeriod(TimeUnit.SECONDS.toMillis(retryPaceSec));
-        return fixedBackOffPolicy;
+    /**
+     * Try to obtain the lock once.
+     *
+     * @param lockKey        the lock key
+     * @param lockAtMostFor  the lock duration
+     * @param lockAtLeastFor min time the lock is held
+     * @return the lock if obtained, otherwise empty.
+     */
+    Optional<SimpleLock> tryAcquire(final String lockKey, final Duration lockAtMostFor,
+                                    final Duration lockAtLeastFor) {
+        return tryAcquire(lockKey,
+                () -> lockFromProvider(new LockConfiguration(LockKeys.compact(lockKey), lockAtMostFor,
+                        lockAtLeastFor)));
+    }
+
+    /**
+     * Try to obtain the lock once for a waiter: in turn if the waiter is fair, otherwise out of turn.
+     *
+     * @param lockKey        the lock key
+     * @param lockAtMostFor  the lock duration
+     * @param lockAtLeastFor min time the lock is held
+     * @param waiterId       unique id of the fair waiter; null if the waiter isn't fair
+     * @param turnTimeout    time the fair waiter keeps its place without further attempts
+     * @return the lock if obtained, otherwise empty.
+     */
+    Optional<SimpleLock> tryAcquire(final String lockKey, final Duration lockAtMostFor,
+                                    final Duration lockAtLeastFor, final String waiterId,
+                                    final Duration turnTimeout) {
+        if (waiterId == null) {
+            return tryAcquire(lockKey, lockAtMostFor, lockAtLeastFor);
+        }
+        LockWait wait = new LockWait(waiterId);
+        wait.setTurnTimeout(turnTimeout);
+        return tryAcquireInTurn(lockKey, lockAtMostFor, lockAtLeastFor, wait);
+    }
+
+    private Optional<SimpleLock> lockFromProvider(final LockConfiguration lockConfiguration) {
+        LockBatcher batcher = leaseBatcher;
+        return batcher != null ? batcher.lock(lockConfiguration) : lockProvider.lock(lockConfiguration);
+    }
+
+    private Optional<SimpleLock> tryAcquireInTurn(final String lockKey, final Duration lockAtMostFor,
+                                                  final Duration lockAtLeastFor, final LockWait wait) {
+        if (lockProvider instanceof FairLockProvider fairLockProvider) {
+            LockConfiguration lockConfiguration = new LockConfiguration(LockKeys.compact(lockKey), lockAtMostFor,
+                    lockAtLeastFor);
+            return tryAcquire(lockKey, () -> {
+                LockBatcher batcher = leaseBatcher;
+                return batcher != null
+                        ? batcher.lockInTurn(lockConfiguration, wait.getWaiterId(), wait.getTurnTimeout())
+                        : fairLockProvider.lockInTurn(lockConfiguration, wait.getWaiterId(), wait.getTurnTimeout());
+            });
+        }
+        return tryAcquire(lockKey, lockAtMostFor, lockAtLeastFor);
+    }
+
+    private Optional<SimpleLock> tryAcquire(final String lockKey,
+                                            final Supplier<Optional<SimpleLock>> providerLock) {
+        return localLocks.lock(lockKey, providerLock);
+    }
+
+    /**
+     * Get the lease batcher.
+     *
+     * @return coalescing of single lock attempts; null if lease batching is disabled.
+     */
+    LockBatcher getLeaseBatcher() {
+        return leaseBatcher;
+    }
+
+    /**
+     * Get retry timeout.
+     *
+     * @return duration during which the lock is tried to be obtained.
+     */
+    Duration getRetryTimeout() {
+        return Duration.ofSeconds(retryTimeoutSec);
+    }
+
+    /**
+     * Get retry pace.
+     *
+     * @return pause between two attempts to obtain the lock held by another node.
+     */
+    Duration getRetryPace() {
+        return Duration.ofSeconds(retryPaceSec);
+    }
+
+    /**
+     * Wrap the lock obtained, start renewal of its lease if configured, and record wait metrics.
+     *
+     * @param lockKey        the lock key
+     * @param lock           the lock obtained
+     * @param lockAtMostFor  the lock duration
+     * @param waitStartNanos time (System.nanoTime) the caller started to wait for the lock
+     * @param attempts       number of attempts made to obtain the lock
+     * @return the lock held by this JVM.
+     */
+    AcquiredLock acquired(final String lockKey, final SimpleLock lock, final Duration lockAtMostFor,
+                          final long waitStartNanos, final int attempts) {
+        metrics.acquired(lockKey, System.nanoTime() - waitStartNanos, attempts);
+        AcquiredLock acquiredLock = new AcquiredLock(this, lockKey, lock, lockAtMostFor);
+        acquiredLocks.add(acquiredLock);
+        if (leaseRenewalIntervalSec != null && leaseRenewalIntervalSec > 0) {
+            acquiredLock.startRenewal(scheduler, TimeUnit.SECONDS.toMillis(leaseRenewalIntervalSec));
+        }
+        return acquiredLock;
+    }
+
+    /**
+     * Execute the callable and release the lock afterwards.
+     *
+     * @param <T>          the type parameter
+     * @param acquiredLock the lock held
+     * @param callable     the callable
+     * @return the result of callable
+     * @throws Exception in case the callable throws it.
+     */
+    <T> T executeLocked(final AcquiredLock acquiredLock, final Callable<T> callable) throws Exception {
+        try {
+            return callable.call();
+        } finally {
+            acquiredLock.release();
+        }
+    }
+
+    /**
+     * Admit the waiter to wait between attempts, unless limits of waiters are reached.
+     *
+     * @param waiter the waiter registered
+     * @return true if the waiter may wait; false if the caller must be rejected at once.
+     */
+    boolean admit(final LockWaitQueue.Waiter waiter) {
+        return waiter.admit(maxWaitersPerKey, maxWaiters);
+    }
+
+    /**
+     * Get the pause after the failed attempt given. With adaptive retry pace, once enough locks of the key prefix
+     * are observed, the first pause is half the average hold time and the next ones are a quarter of it,
+     * from 10 ms up to max retry pace of the options; otherwise the pause follows the options.
+     *
+     * @param lockKey            the lock key
+     * @param options            the lock options
+     * @param attempt            number of the failed attempt, starting from 0
+     * @param previousPaceMillis pause after the previous failed attempt (milliseconds); 0 for the first one
+     * @return pause before the next attempt (milliseconds).
+     */
+    long retryPaceMillis(final String lockKey, final LockOptions options, final int attempt,
+                         final long previousPaceMillis) {
+        HoldEstimate estimate = adaptiveRetryPace ? holdStatistics.get(lockKey) : null;
+        if (estimate == null) {
+            return options.retryPaceMillis(attempt, previousPaceMillis);
+        }
+        long paceMillis = estimate.meanHoldMillis() / (attempt == 0 ? 2 : 4);
+        return Math.min(Math.max(paceMillis, MIN_ADAPTIVE_PACE_MILLIS), options.getMaxRetryPace().toMillis());
+    }
+
+    /**
+     * Get the time (System.nanoTime) after which no more attempts are made by the call started now:
+     * max wait of the options, or the deadline set by {@link #executeWithMaxWait(Duration, Callable)}
+     * if it comes earlier.
+     *
+     * @param options the lock options
+     * @return deadline of the call (nanoseconds).
+     */
+    long deadlineNanos(final LockOptions options) {
+        return deadlineNanos(options, callDeadline.get());
+    }
+
+    /**
+     * Get the time (System.nanoTime) after which no more attempts are made by the call started now:
+     * max wait of the options, or the call deadline given if it comes earlier.
+     *
+     * @param options      the lock options
+     * @param callDeadline deadline captured by {@link #getCallDeadlineNanos()}; null for none
+     * @return deadline of the call (nanoseconds).
+     */
+    long deadlineNanos(final LockOptions options, final Long callDeadline) {
+        return CallDeadline.deadlineNanos(options, callDeadline);
+    }
+
+    /**
+     * Register a waiter for the key in the wait queue.
+     *
+     * @param lockKey the lock key
+     * @return registered waiter.
+     */
+    LockWaitQueue.Waiter registerWaiter(final String lockKey) {
+        return waitQueue.register(lockKey);
+    }
+
+    /**
+     * Release the local lock of the key, if any, wake up local waiters and record hold metrics.
+     * Waiters are not woken up if the lock provider does it itself and there is no local lock:
+     * otherwise they could be woken up before the local lock is released.
+     * The lock provider notifies about compacted keys only, so waiters of long keys are always woken up here.
+     *
+     * @param acquiredLock the lock released
+     * @param holdNanos    time the lock was held (nanoseconds)
+     * @param leaseExpired the lease expired before the lock was released (true) or not.
+     */
+    void released(final AcquiredLock acquiredLock, final long holdNanos, final boolean leaseExpired) {
+        acquiredLocks.remove(acquiredLock);
+        String lockKey = acquiredLock.getLockKey();
+        metrics.released(lockKey, holdNanos, leaseExpired);
+        holdStatistics.record(lockKey, holdNanos);
+        boolean localLockReleased = localLocks.unlock(lockKey);
+        if (localLockReleased || !providerNotifiesRelease || lockKey.length() > LockKeys.MAX_KEY_SIZE) {
+            waitQueue.signal(lockKey);
+        }
+    }
+
+    /**
+     * Execute with lock. Id of this node and its next sequence number will be added to lock key,
+     * so that the key is unique across calls and nodes; long lock key is compacted to fit max key size.
+     *
+     * @param lockKey  the lock key
+     * @param runnable the runnable
+     */
+    public void executeWithLockWithUniqueLockKey(final String lockKey, final Runnable runnable) {
+        String preparedLockKey = LockKeys.unique(lockKey);
+        log.debug("start executeWithLock(lockKey: {}, preparedLockKey: {} Runnable)", lockKey, preparedLockKey);
+        executeWithLock(preparedLockKey, defaultLeaseSec(preparedLockKey), runnable);
+    }
+
+    private void rejected(final String message, final String lockKey, final Object lockDuration) {
+        metrics.rejected(lockKey);
+        logRejection(message, lockKey, lockDuration);
+    }
+
+    private void logRejection(final String message, final String lockKey, final Object lockDuration) {
+        long now = System.currentTimeMillis();
+        long lastLogged = lastRejectionLogMillis.get();
+        if (now - lastLogged >= REJECTION_LOG_INTERVAL_MILLIS
+                && lastRejectionLogMillis.compareAndSet(lastLogged, now)) {
+            log.error(message + " Rejections not logged since the previous one: {}.", lockKey, lockDuration,
+                    notLoggedRejections.getAndSet(0));
+        } else {
+            notLoggedRejections.incrementAndGet();
+            log.debug(message, lockKey, lockDuration);
+        }
     }
 }
@@ -0,0 +1,57 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+/**
+ * Recorder of lock metrics of LockManager. Methods are called on hot paths, so they must be cheap and must not throw.
+ */
+public interface LockMetrics {
+
+    /**
+     * Recorder doing nothing.
+     */
+    LockMetrics NOOP = new LockMetrics() {
+    };
+
+    /**
+     * Record the lock obtained.
+     *
+     * @param lockKey   the lock key
+     * @param waitNanos time the caller waited for the lock (nanoseconds)
+     * @param attempts  number of attempts made to obtain the lock.
+     */
+    default void acquired(final String lockKey, final long waitNanos, final int attempts) {
+    }
+
+    /**
+     * Record the lock released.
+     *
+     * @param lockKey      the lock key
+     * @param holdNanos    time the lock was held (nanoseconds)
+     * @param leaseExpired the lease expired before the lock was released (true) or not.
+     */
+    default void released(final String lockKey, final long holdNanos, final boolean leaseExpired) {
+    }
+
+    /**
+     * Record the lock not obtained within max wait.
+     *
+     * @param lockKey the lock key.
+     */
+    default void rejected(final String lockKey) {
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Immutable options of a lock call: lease, max wait, backoff between attempts and min hold.
+ * Pauses between attempts start with optional fast retries, then follow the backoff strategy up to max retry pace.
+ * Fair waiters of a key obtain the lock in arrival order: in this JVM, and across nodes if the lock provider
+ * implements {@link org.qubership.atp.common.lock.provider.FairLockProvider}.
+ * Derived values are computed once on build, so the same options can be reused by any number of calls.
+ */
+@Getter
+public final class LockOptions {
+
+    /**
+     * Max shift of retry pace on exponential backoff; keeps the pause from overflow.
+     */
+    private static final int MAX_BACKOFF_SHIFT = 20;
+
+    /**
+     * Growth factor of the upper bound of decorrelated jitter pause.
+     */
+    private static final int DECORRELATED_JITTER_FACTOR = 3;
+
+    /**
+     * Default pause of fast retries.
+     */
+    private static final Duration DEFAULT_FAST_RETRY_PACE = Duration.ofMillis(100);
+
+    /**
+     * Lock duration (lock at most for).
+     */
+    private final Duration lease;
+
+    /**
+     * Max time during which the lock is tried to be obtained.
+     */
+    private final Duration maxWait;
+
+    /**
+     * Pause between two attempts to obtain the lock held by another node; the initial one for exponential backoff.
+     */
+    private final Duration retryPace;
+
+    /**
+     * Backoff strategy between attempts.
+     */
+    private final Backoff backoff;
+
+    /**
+     * Random deviation of each pause, as a fraction of the pause (from 0 to 1); not used by decorrelated jitter.
+     */
+    private final double jitter;
+
+    /**
+     * Max pause between two attempts (cap of backoff).
+     */
+    private final Duration maxRetryPace;
+
+    /**
+     * Number of first retries made with fast retry pace, before backoff strategy is applied.
+     */
+    private final int fastRetries;
+
+    /**
+     * Pause of fast retries.
+     */
+    private final Duration fastRetryPace;
+
+    /**
+     * Min time the lock is held, even if the task is finished earlier (lock at least for).
+     */
+    private final Duration minHold;
+
+    /**
+     * Waiters obtain the lock in arrival order (true) or whoever tries first after release (false).
+     */
+    private final boolean fair;
+
+    /**
+     * Max wait (nanoseconds).
+     */
+    @Getter(AccessLevel.NONE)
+    private final long maxWaitNanos;
+
+    /**
+     * Retry pace (milliseconds).
+     */
+    @Getter(AccessLevel.NONE)
+    private final long retryPaceMillis;
+
+    /**
+     * Max retry pace (milliseconds).
+     */
+    @Getter(AccessLevel.NONE)
+    private final long maxRetryPaceMillis;
+
+    /**
+     * Fast retry pace (milliseconds).
+     */
+    @Getter(AccessLevel.NONE)
+    private final long fastRetryPaceMillis;
+
+    /**
+     * Backoff strategies between attempts to obtain the lock.
+     */
+    public enum Backoff {
+
+        /**
+         * The same pause after each attempt.
+         */
+        FIXED,
+
+        /**
+         * The pause is doubled after each attempt.
+         */
+        EXPONENTIAL,
+
+        /**
+         * The pause is random between retry pace and triple the previous pause,
+         * so that waiters of different nodes don't retry in lockstep.
+         */
+        DECORRELATED_JITTER
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param lease         lock duration
+     * @param maxWait       max time during which the lock is tried to be obtained
+     * @param retryPace     pause between two attempts
+     * @param backoff       backoff strategy; FIXED if null
+     * @param jitter        random deviation of each pause, as a fraction of the pause; 0 if null
+     * @param minHold       min time the lock is held; zero if null
+     * @param maxRetryPace  max pause between two attempts; max wait if null
+     * @param fastRetries   number of first retries made with fast retry pace; 0 if null
+     * @param fastRetryPace pause of fast retries; 100 ms if null
+     * @param fair          waiters obtain the lock in arrival order; false if null.
+     */
+    @Builder(toBuilder = true)
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private LockOptions(final Duration lease,
+                        final Duration maxWait,
+                        final Duration retryPace,
+                        final Backoff backoff,
+                        final Double jitter,
+                        final Duration minHold,
+                        final Duration maxRetryPace,
+                        final Integer fastRetries,
+                        final Duration fastRetryPace,
+                        final Boolean fair) {
+        this.lease = Objects.requireNonNull(lease, "lease");
+        this.maxWait = Objects.requireNonNull(maxWait, "maxWait");
+        this.retryPace = Objects.requireNonNull(retryPace, "retryPace");
+        this.backoff = backoff == null ? Backoff.FIXED : backoff;
+        this.jitter = jitter == null ? 0 : jitter;
+        this.minHold = minHold == null ? Duration.ZERO : minHold;
+        this.maxRetryPace = maxRetryPace == null ? maxWait : maxRetryPace;
+        this.fastRetries = fastRetries == null ? 0 : fastRetries;
+        this.fastRetryPace = fastRetryPace == null ? DEFAULT_FAST_RETRY_PACE : fastRetryPace;
+        this.fair = fair != null && fair;
+        if (this.jitter < 0 || this.jitter > 1) {
+            throw new IllegalArgumentException("Jitter must be from 0 to 1, but is " + jitter);
+        }
+        if (this.minHold.compareTo(lease) > 0) {
+            throw new IllegalArgumentException("Min hold " + minHold + " is longer than lease " + lease);
+        }
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryPaceMillis = retryPace.toMillis();
+        this.maxRetryPaceMillis = this.maxRetryPace.toMillis();
+        this.fastRetryPaceMillis = this.fastRetryPace.toMillis();
+    }
+
+    /**
+     * Get the time (System.nanoTime) after which no more attempts are made by the call started now.
+     *
+     * @return deadline of the call (nanoseconds).
+     */
+    long deadlineNanos() {
+        return System.nanoTime() + maxWaitNanos;
+    }
+
+    /**
+     * Get the pause after the failed attempt given.
+     *
+     * @param attempt            number of the failed attempt, starting from 0
+     * @param previousPaceMillis pause after the previous failed attempt (milliseconds); 0 for the first one
+     * @return pause before the next attempt (milliseconds).
+     */
+    long retryPaceMillis(final int attempt, final long previousPaceMillis) {
+        if (attempt < fastRetries) {
+            return fastRetryPaceMillis;
+        }
+        long paceMillis = switch (backoff) {
+            case EXPONENTIAL -> withJitter(retryPaceMillis << Math.min(attempt - fastRetries, MAX_BACKOFF_SHIFT));
+            case DECORRELATED_JITTER -> {
+                long upperMillis = Math.max(retryPaceMillis,
+                        Math.min(maxRetryPaceMillis, previousPaceMillis * DECORRELATED_JITTER_FACTOR));
+                yield ThreadLocalRandom.current().nextLong(retryPaceMillis, upperMillis + 1);
+            }
+            default -> withJitter(retryPaceMillis);
+        };
+        return Math.min(paceMillis, maxRetryPaceMillis);
+    }
+
+    private long withJitter(final long paceMillis) {
+        if (jitter == 0) {
+            return paceMillis;
+        }
+        double deviation = ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return Math.max(0, Math.round(paceMillis * (1 + deviation)));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.atp.common.lock;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Wait of a caller for the lock: start time and attempts for metrics, and turn in the queue of fair waiters.
+ */
+@Getter
+final class LockWait {
+
+    /**
+     * Time (System.nanoTime) the wait is started.
+     */
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Unique id of the waiter in the queue of the lock provider; null if the waiter isn't fair.
+     */
+    private final String waiterId;
+
+    /**
+     * Number of attempts made so far.
+     */
+    private int attempts;
+
+    /**
+     * Time the waiter keeps its place in the queue without further attempts.
+     */
+    @Setter
+    private Duration turnTimeout;
+
+    /**
+     * Constructor.
+     *
+     * @param waiterId unique id of the fair waiter; null if the waiter isn't fair.
+     */
+    LockWait(final String waiterId) {
+        this.waiterId = waiterId;
+    }
+
+    /**
+     * Count the attempt being made.
+     */
+    void attempt() {
+        attempts++;
+    }
+}
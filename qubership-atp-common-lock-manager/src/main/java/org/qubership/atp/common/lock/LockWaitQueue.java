@@ -0,0 +1,338 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-key queue of in-JVM lock waiters.
+ * Waiters park here between acquisition attempts and are woken as soon as the key is released locally,
+ * so the retry pace only matters for locks held by other nodes.
+ * Waiters of a key are kept in arrival order, so that fair callers can let the first one make attempts.
+ * Waiters are admitted to wait within limits per key and in total, so that callers beyond them are rejected at once.
+ */
+class LockWaitQueue {
+
+    /**
+     * Waiters registered by lock key. An entry exists only while at least one waiter is registered.
+     */
+    private final Map<String, KeyWaiters> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Number of admitted waiters of all keys.
+     */
+    private final AtomicInteger admitted = new AtomicInteger();
+
+    /**
+     * Register a waiter for the key. The waiter must be closed when the caller stops waiting.
+     *
+     * @param lockKey the lock key
+     * @return registered waiter.
+     */
+    Waiter register(final String lockKey) {
+        KeyWaiters keyWaiters = waiters.compute(lockKey, (key, current) -> {
+            KeyWaiters result = current == null ? new KeyWaiters() : current;
+            result.count++;
+            return result;
+        });
+        Waiter waiter = new Waiter(lockKey, keyWaiters);
+        keyWaiters.lock.lock();
+        try {
+            keyWaiters.queue.add(waiter);
+        } finally {
+            keyWaiters.lock.unlock();
+        }
+        return waiter;
+    }
+
+    /**
+     * Wake all waiters of the key up, if any.
+     *
+     * @param lockKey the lock key released.
+     */
+    void signal(final String lockKey) {
+        KeyWaiters keyWaiters = waiters.get(lockKey);
+        if (keyWaiters != null) {
+            keyWaiters.signalAll();
+        }
+    }
+
+    /**
+     * Get waiters of all keys having at least one waiter.
+     *
+     * @return number of waiters and the oldest wait by lock key, as of now.
+     */
+    List<LockWaiters> snapshot() {
+        List<LockWaiters> snapshot = new ArrayList<>();
+        waiters.forEach((lockKey, keyWaiters) -> {
+            keyWaiters.lock.lock();
+            try {
+                Iterator<Waiter> iterator = keyWaiters.queue.iterator();
+                if (iterator.hasNext()) {
+                    snapshot.add(new LockWaiters(lockKey, keyWaiters.queue.size(),
+                            Duration.ofNanos(System.nanoTime() - iterator.next().registeredNanos)));
+                }
+            } finally {
+                keyWaiters.lock.unlock();
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * Wait until any of the keys of the waiters given is released locally or the timeout elapses.
+     *
+     * @param waiters       waiters of the keys
+     * @param timeoutMillis max time to wait (milliseconds)
+     * @throws InterruptedException in case the thread is interrupted while waiting.
+     */
+    static void awaitAny(final List<Waiter> waiters, final long timeoutMillis) throws InterruptedException {
+        CountDownLatch released = new CountDownLatch(1);
+        waiters.forEach(waiter -> waiter.onRelease(released::countDown));
+        released.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void unregister(final String lockKey) {
+        waiters.computeIfPresent(lockKey, (key, current) -> --current.count == 0 ? null : current);
+    }
+
+    private static final class KeyWaiters {
+
+        /**
+         * Number of registered waiters; guarded by the map entry.
+         */
+        private int count;
+
+        /**
+         * Number of releases signalled so far.
+         */
+        private volatile long generation;
+
+        /**
+         * Lock guarding the condition.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Condition signalled on release.
+         */
+        private final Condition released = lock.newCondition();
+
+        /**
+         * One-shot release callbacks of non-blocking waiters; guarded by lock.
+         */
+        private final Map<Waiter, Runnable> callbacks = new HashMap<>();
+
+        /**
+         * Registered waiters in arrival order; guarded by lock.
+         */
+        private final Set<Waiter> queue = new LinkedHashSet<>();
+
+        /**
+         * Number of admitted waiters; guarded by lock.
+         */
+        private int admitted;
+
+        private void signalAll() {
+            List<Runnable> fired;
+            lock.lock();
+            try {
+                generation++;
+                released.signalAll();
+                fired = new ArrayList<>(callbacks.values());
+                callbacks.clear();
+            } finally {
+                lock.unlock();
+            }
+            fired.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Registration of a single caller waiting for a key.
+     */
+    final class Waiter implements AutoCloseable {
+
+        /**
+         * The lock key.
+         */
+        private final String lockKey;
+
+        /**
+         * Waiters of the key.
+         */
+        private final KeyWaiters keyWaiters;
+
+        /**
+         * Release generation observed before the last acquisition attempt.
+         */
+        private volatile long observedGeneration;
+
+        /**
+         * Waiter is closed (true) or not.
+         */
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        /**
+         * Time (System.nanoTime) the waiter is registered.
+         */
+        private final long registeredNanos = System.nanoTime();
+
+        /**
+         * Waiter is admitted to wait (true) or not yet; guarded by lock of keyWaiters.
+         */
+        private boolean admitted;
+
+        private Waiter(final String lockKey, final KeyWaiters keyWaiters) {
+            this.lockKey = lockKey;
+            this.keyWaiters = keyWaiters;
+            this.observedGeneration = keyWaiters.generation;
+        }
+
+        /**
+         * Remember current release generation. Must be called before each acquisition attempt,
+         * so that a release happened between the attempt and {@link #await(long)} is not lost.
+         */
+        void beforeAttempt() {
+            observedGeneration = keyWaiters.generation;
+        }
+
+        /**
+         * Wait until the key is released locally or the timeout elapses.
+         *
+         * @param timeoutMillis max time to wait (milliseconds)
+         * @throws InterruptedException in case the thread is interrupted while waiting.
+         */
+        void await(final long timeoutMillis) throws InterruptedException {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            keyWaiters.lock.lock();
+            try {
+                while (keyWaiters.generation == observedGeneration && nanos > 0) {
+                    nanos = keyWaiters.released.awaitNanos(nanos);
+                }
+            } finally {
+                keyWaiters.lock.unlock();
+            }
+        }
+
+        /**
+         * Run the callback once the key is released locally, without blocking the calling thread.
+         * The callback replaces previously registered one of this waiter and runs immediately
+         * if the key was released since the last {@link #beforeAttempt()}.
+         *
+         * @param callback the callback to run on release.
+         */
+        void onRelease(final Runnable callback) {
+            keyWaiters.lock.lock();
+            try {
+                if (keyWaiters.generation == observedGeneration) {
+                    keyWaiters.callbacks.put(this, callback);
+                    return;
+                }
+            } finally {
+                keyWaiters.lock.unlock();
+            }
+            callback.run();
+        }
+
+        /**
+         * Admit the waiter to wait between attempts, unless the limits of waiters are reached.
+         * Admitted waiter stays admitted until closed.
+         *
+         * @param maxPerKey max number of admitted waiters of the key; 0 means no limit
+         * @param maxTotal  max number of admitted waiters of all keys; 0 means no limit
+         * @return true if the waiter is admitted; false if it must not wait.
+         */
+        boolean admit(final int maxPerKey, final int maxTotal) {
+            keyWaiters.lock.lock();
+            try {
+                if (admitted) {
+                    return true;
+                }
+                if (maxPerKey > 0 && keyWaiters.admitted >= maxPerKey) {
+                    return false;
+                }
+                if (LockWaitQueue.this.admitted.incrementAndGet() > maxTotal && maxTotal > 0) {
+                    LockWaitQueue.this.admitted.decrementAndGet();
+                    return false;
+                }
+                keyWaiters.admitted++;
+                admitted = true;
+                return true;
+            } finally {
+                keyWaiters.lock.unlock();
+            }
+        }
+
+        /**
+         * Check whether the waiter is the first one of the key, i.e. all waiters registered earlier are closed.
+         *
+         * @return true if the waiter is the first one; otherwise false.
+         */
+        boolean isFirst() {
+            keyWaiters.lock.lock();
+            try {
+                Iterator<Waiter> iterator = keyWaiters.queue.iterator();
+                return iterator.hasNext() && iterator.next() == this;
+            } finally {
+                keyWaiters.lock.unlock();
+            }
+        }
+
+        /**
+         * Unregister the waiter. Repeated calls have no effect.
+         * If the waiter was the first one, other waiters are woken up, so that the next one can make attempts.
+         */
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            boolean nextIsFirst;
+            keyWaiters.lock.lock();
+            try {
+                keyWaiters.callbacks.remove(this);
+                if (admitted) {
+                    keyWaiters.admitted--;
+                    LockWaitQueue.this.admitted.decrementAndGet();
+                }
+                nextIsFirst = isFirst() && keyWaiters.queue.size() > 1;
+                keyWaiters.queue.remove(this);
+            } finally {
+                keyWaiters.lock.unlock();
+            }
+            unregister(lockKey);
+            if (nextIsFirst) {
+                keyWaiters.signalAll();
+            }
+        }
+    }
+}
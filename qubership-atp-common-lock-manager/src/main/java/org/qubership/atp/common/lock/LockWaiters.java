@@ -0,0 +1,56 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+/**
+ * Snapshot of in-JVM waiters of a lock key, for diagnostics.
+ */
+@Getter
+public final class LockWaiters {
+
+    /**
+     * The lock key.
+     */
+    private final String lockKey;
+
+    /**
+     * Number of waiters.
+     */
+    private final int count;
+
+    /**
+     * Time the oldest waiter has been waiting so far.
+     */
+    private final Duration oldestWait;
+
+    /**
+     * Constructor.
+     *
+     * @param lockKey    the lock key
+     * @param count      number of waiters
+     * @param oldestWait time the oldest waiter has been waiting so far.
+     */
+    LockWaiters(final String lockKey, final int count, final Duration oldestWait) {
+        this.lockKey = lockKey;
+        this.count = count;
+        this.oldestWait = oldestWait;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.atp.common.lock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.qubership.atp.common.lock.exceptions.AtpLockRejectException;
+import org.qubership.atp.common.lock.provider.BatchLockProvider;
+
+import lombok.SneakyThrows;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+/**
+ * Acquisition of locks of several keys at once. The whole set of keys is tried by each attempt, either all of them
+ * or none, so concurrent callers with intersecting keys can't deadlock; callers wait for the release of any key
+ * of the set between attempts.
+ */
+class MultiKeyLocks {
+
+    /**
+     * Lock manager the locks belong to.
+     */
+    private final LockManager lockManager;
+
+    /**
+     * Lock provider.
+     */
+    private final LockProvider lockProvider;
+
+    /**
+     * Local locks taken before the lock provider.
+     */
+    private final LocalLocks localLocks;
+
+    /**
+     * Locks held by the current thread.
+     */
+    private final LockHolds holds;
+
+    /**
+     * Constructor.
+     *
+     * @param lockManager  lock manager the locks belong to
+     * @param lockProvider lock provider
+     * @param localLocks   local locks taken before the lock provider
+     * @param holds        locks held by the current thread.
+     */
+    MultiKeyLocks(final LockManager lockManager, final LockProvider lockProvider, final LocalLocks localLocks,
+                  final LockHolds holds) {
+        this.lockManager = lockManager;
+        this.lockProvider = lockProvider;
+        this.localLocks = localLocks;
+        this.holds = holds;
+    }
+
+    /**
+     * Execute with locks of all keys given, and wait if any of them is busy, as configured by the options given.
+     * Keys already held by the current thread are reentered.
+     *
+     * @param <T>      the type parameter
+     * @param lockKeys the lock keys, in their natural order and without duplicates
+     * @param options  the lock options
+     * @param callable the callable
+     * @return the result of callable
+     * @throws AtpLockRejectException if the locks aren't obtained within max wait.
+     */
+    @SneakyThrows
+    <T> T execute(final List<String> lockKeys, final LockOptions options, final Callable<T> callable) {
+        lockKeys.forEach(lockKey -> holds.checkNotUpgraded(lockKey, false));
+        List<String> keysToLock = lockKeys.stream().filter(lockKey -> holds.getHoldCount(lockKey) == 0).toList();
+        if (keysToLock.isEmpty()) {
+            return holds.executeHolding(lockKeys, false, Collections.emptyList(), callable);
+        }
+        long startNanos = System.nanoTime();
+        long deadlineNanos = lockManager.deadlineNanos(options);
+        List<LockWaitQueue.Waiter> waiters = new ArrayList<>(keysToLock.size());
+        try {
+            keysToLock.forEach(lockKey -> waiters.add(lockManager.registerWaiter(lockKey)));
+            long paceMillis = 0;
+            for (int attemptNumber = 0; ; attemptNumber++) {
+                waiters.forEach(LockWaitQueue.Waiter::beforeAttempt);
+                Optional<List<SimpleLock>> locks = tryAcquireAll(keysToLock, options.getLease());
+                if (locks.isPresent()) {
+                    List<AcquiredLock> acquiredLocks = new ArrayList<>(keysToLock.size());
+                    for (int i = 0; i < keysToLock.size(); i++) {
+                        acquiredLocks.add(lockManager.acquired(keysToLock.get(i), locks.get().get(i),
+                                options.getLease(), startNanos, attemptNumber + 1));
+                    }
+                    return holds.executeHolding(lockKeys, false, acquiredLocks, callable);
+                }
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    throw new AtpLockRejectException("Cannot obtain locks by keys " + lockKeys);
+                }
+                lockManager.checkAdmitted(waiters, lockKeys);
+                paceMillis = options.retryPaceMillis(attemptNumber, paceMillis);
+                LockWaitQueue.awaitAny(waiters, Math.min(paceMillis, TimeUnit.NANOSECONDS.toMillis(remainingNanos)));
+            }
+        } finally {
+            waiters.forEach(LockWaitQueue.Waiter::close);
+        }
+    }
+
+    /**
+     * Try to obtain locks of all keys once, in the order given; either all of them or none.
+     * Lock providers implementing {@link BatchLockProvider} obtain the whole set at once.
+     *
+     * @param lockKeys      the lock keys
+     * @param lockAtMostFor the lock duration
+     * @return locks in the order of keys if obtained, otherwise empty.
+     */
+    Optional<List<SimpleLock>> tryAcquireAll(final List<String> lockKeys, final Duration lockAtMostFor) {
+        List<LockConfiguration> lockConfigurations = new ArrayList<>(lockKeys.size());
+        for (String lockKey : lockKeys) {
+            lockConfigurations.add(new LockConfiguration(LockKeys.compact(lockKey), lockAtMostFor, Duration.ZERO));
+        }
+        return localLocks.lockAll(lockKeys, () -> lockProvider instanceof BatchLockProvider batchLockProvider
+                ? batchLockProvider.lockAll(lockConfigurations)
+                : BatchLockProvider.lockOneByOne(lockProvider, lockConfigurations));
+    }
+}
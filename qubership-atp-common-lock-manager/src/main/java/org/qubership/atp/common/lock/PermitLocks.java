@@ -0,0 +1,117 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.atp.common.lock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.qubership.atp.common.lock.exceptions.AtpLockRejectException;
+
+import lombok.SneakyThrows;
+
+/**
+ * Acquisition of one of permits of a key. Each permit is a lock of its own slot key 'lockKey#i'
+ * (i from 0 to permits - 1), so any lock provider limits executions across the cluster;
+ * slots are tried from a random one to spread callers, and callers wait for the release of any slot between attempts.
+ */
+class PermitLocks {
+
+    /**
+     * Separator of the lock key and the slot number in keys of permits.
+     */
+    private static final String PERMIT_SLOT_SEPARATOR = "#";
+
+    /**
+     * Lock manager the locks belong to.
+     */
+    private final LockManager lockManager;
+
+    /**
+     * Locks held by the current thread.
+     */
+    private final LockHolds holds;
+
+    /**
+     * Constructor.
+     *
+     * @param lockManager lock manager the locks belong to
+     * @param holds       locks held by the current thread.
+     */
+    PermitLocks(final LockManager lockManager, final LockHolds holds) {
+        this.lockManager = lockManager;
+        this.holds = holds;
+    }
+
+    /**
+     * Execute with one of permits of the key, and wait if all of them are busy, as configured by the options given.
+     * If the current thread already holds a permit of the key, it's reentered.
+     *
+     * @param <T>      the type parameter
+     * @param lockKey  the lock key
+     * @param permits  number of permits, i.e. max number of concurrent executions with the key
+     * @param options  the lock options
+     * @param callable the callable
+     * @return the result of callable
+     * @throws AtpLockRejectException if no permit is obtained within max wait.
+     */
+    @SneakyThrows
+    <T> T execute(final String lockKey, final int permits, final LockOptions options, final Callable<T> callable) {
+        List<String> slotKeys = new ArrayList<>(permits);
+        for (int i = 0; i < permits; i++) {
+            slotKeys.add(lockKey + PERMIT_SLOT_SEPARATOR + i);
+        }
+        for (String slotKey : slotKeys) {
+            if (holds.getHoldCount(slotKey) > 0) {
+                return lockManager.attemptWithLock(slotKey, options.getLease(), options.getMinHold(), false, null,
+                        callable).getResult();
+            }
+        }
+        long deadlineNanos = lockManager.deadlineNanos(options);
+        LockWait wait = new LockWait(null);
+        List<LockWaitQueue.Waiter> waiters = new ArrayList<>(permits);
+        try {
+            slotKeys.forEach(slotKey -> waiters.add(lockManager.registerWaiter(slotKey)));
+            long paceMillis = 0;
+            for (int attemptNumber = 0; ; attemptNumber++) {
+                waiters.forEach(LockWaitQueue.Waiter::beforeAttempt);
+                int firstSlot = ThreadLocalRandom.current().nextInt(permits);
+                wait.attempt();
+                for (int i = 0; i < permits; i++) {
+                    String slotKey = slotKeys.get((firstSlot + i) % permits);
+                    LockAttempt<T> attempt = lockManager.attemptWithLock(slotKey, options.getLease(),
+                            options.getMinHold(), false, wait, callable);
+                    if (!attempt.isRejected()) {
+                        return attempt.getResult();
+                    }
+                }
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    throw new AtpLockRejectException("Cannot obtain permit by key " + lockKey);
+                }
+                lockManager.checkAdmitted(waiters, lockKey);
+                paceMillis = lockManager.retryPaceMillis(lockKey, options, attemptNumber, paceMillis);
+                LockWaitQueue.awaitAny(waiters, Math.min(paceMillis, TimeUnit.NANOSECONDS.toMillis(remainingNanos)));
+            }
+        } finally {
+            waiters.forEach(LockWaitQueue.Waiter::close);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.qubership.atp.common.lock.exceptions.AtpLockRejectException;
+
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive counterpart of {@link LockManager} for WebFlux services.
+ * Lock provider calls run on the bounded elastic scheduler, so event-loop threads are never blocked;
+ * retries are delayed with Reactor timers, as configured by {@link LockOptions}, or triggered as soon as the key
+ * is released in this JVM. The lock is released when the work completes, fails or is cancelled,
+ * including the lock obtained by an attempt in flight when the subscriber cancels.
+ */
+@Slf4j
+public class ReactiveLockManager {
+
+    /**
+     * Lock manager providing lock provider, retry settings and local wait queue.
+     */
+    private final LockManager lockManager;
+
+    /**
+     * Scheduler of blocking lock provider calls.
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * Constructor.
+     *
+     * @param lockManager the lock manager.
+     */
+    public ReactiveLockManager(final LockManager lockManager) {
+        this(lockManager, Schedulers.boundedElastic());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param lockManager the lock manager
+     * @param scheduler   scheduler of blocking lock provider calls.
+     */
+    public ReactiveLockManager(final LockManager lockManager, final Scheduler scheduler) {
+        this.lockManager = lockManager;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Execute work with lock, and wait if busy.
+     *
+     * @param <T>     the type parameter
+     * @param lockKey the lock key
+     * @param lease   the lock duration
+     * @param work    the work to subscribe to under the lock
+     * @return Mono of the work result; it fails with {@link AtpLockRejectException}
+     *     if the lock isn't obtained within retry timeout.
+     */
+    public <T> Mono<T> executeWithLock(final String lockKey, final Duration lease, final Mono<T> work) {
+        return executeWithLock(lockKey, withLease(lease), work);
+    }
+
+    /**
+     * Execute work with lock, and wait if busy, as configured by the options given.
+     *
+     * @param <T>     the type parameter
+     * @param lockKey the lock key
+     * @param options the lock options, e.g. one of {@link LockManager#getOptions(String)} profiles
+     * @param work    the work to subscribe to under the lock
+     * @return Mono of the work result; it fails with {@link AtpLockRejectException}
+     *     if the lock isn't obtained within max wait of the options.
+     */
+    public <T> Mono<T> executeWithLock(final String lockKey, final LockOptions options, final Mono<T> work) {
+        return Mono.usingWhen(acquire(lockKey, options),
+                lock -> work,
+                lock -> release(lock),
+                (lock, error) -> release(lock),
+                lock -> release(lock));
+    }
+
+    /**
+     * Execute work with lock, and wait if busy. The lock is held until the work completes.
+     *
+     * @param <T>     the type parameter
+     * @param lockKey the lock key
+     * @param lease   the lock duration
+     * @param work    the work to subscribe to under the lock
+     * @return Flux of the work results; it fails with {@link AtpLockRejectException}
+     *     if the lock isn't obtained within retry timeout.
+     */
+    public <T> Flux<T> executeWithLock(final String lockKey, final Duration lease, final Flux<T> work) {
+        return executeWithLock(lockKey, withLease(lease), work);
+    }
+
+    /**
+     * Execute work with lock, and wait if busy, as configured by the options given.
+     * The lock is held until the work completes.
+     *
+     * @param <T>     the type parameter
+     * @param lockKey the lock key
+     * @param options the lock options, e.g. one of {@link LockManager#getOptions(String)} profiles
+     * @param work    the work to subscribe to under the lock
+     * @return Flux of the work results; it fails with {@link AtpLockRejectException}
+     *     if the lock isn't obtained within max wait of the options.
+     */
+    public <T> Flux<T> executeWithLock(final String lockKey, final LockOptions options, final Flux<T> work) {
+        return Flux.usingWhen(acquire(lockKey, options),
+                lock -> work,
+                lock -> release(lock),
+                (lock, error) -> release(lock),
+                lock -> release(lock));
+    }
+
+    private LockOptions withLease(final Duration lease) {
+        return lockManager.getDefaultOptions().toBuilder().lease(lease).build();
+    }
+
+    private Mono<AcquiredLock> acquire(final String lockKey, final LockOptions options) {
+        // The deadline of lock waits of the caller thread is captured now, since subscription may happen elsewhere.
+        Long callDeadlineNanos = lockManager.getCallDeadlineNanos();
+        return Mono.using(() -> new ReactiveWait(lockManager.registerWaiter(lockKey),
+                                lockManager.deadlineNanos(options, callDeadlineNanos),
+                                options.isFair() ? UUID.randomUUID().toString() : null,
+                                lockManager.hasLocalTurns(options)),
+                        wait -> Mono.fromCallable(() -> attempt(lockKey, options, wait))
+                                .subscribeOn(scheduler)
+                                .repeatWhenEmpty(attempts -> attempts.concatMap(
+                                        attempt -> nextAttempt(lockKey, wait)))
+                                .doOnCancel(() -> wait.cancelled = true),
+                        wait -> leave(lockKey, wait))
+                .doOnDiscard(AcquiredLock.class, lock -> release(lock).subscribe());
+    }
+
+    private AcquiredLock attempt(final String lockKey, final LockOptions options, final ReactiveWait wait) {
+        wait.waiter.beforeAttempt();
+        wait.paceMillis = lockManager.retryPaceMillis(lockKey, options, wait.rounds++, wait.paceMillis);
+        if (wait.localTurns && !wait.waiter.isFirst()) {
+            return null;
+        }
+        wait.attempts++;
+        Optional<SimpleLock> lock = lockManager.tryAcquire(lockKey, options.getLease(), options.getMinHold(),
+                wait.waiterId, LockManager.turnTimeout(wait.paceMillis));
+        if (lock.isEmpty()) {
+            return null;
+        }
+        AcquiredLock acquiredLock = lockManager.acquired(lockKey, lock.get(), options.getLease(), wait.startNanos,
+                wait.attempts);
+        if (wait.cancelled) {
+            log.debug("Lock by key '{}' is obtained after the subscriber cancelled, releasing it", lockKey);
+            acquiredLock.release();
+            return null;
+        }
+        return acquiredLock;
+    }
+
+    private Mono<Long> nextAttempt(final String lockKey, final ReactiveWait wait) {
+        long remainingNanos = wait.deadlineNanos - System.nanoTime();
+        if (remainingNanos <= 0) {
+            log.debug("Cannot obtain lock by key '{}' within retry timeout", lockKey);
+            lockManager.getMetrics().rejected(lockKey);
+            return Mono.error(new AtpLockRejectException("Cannot obtain lock by key " + lockKey));
+        }
+        if (!lockManager.admit(wait.waiter)) {
+            log.debug("Too many waiters of lock by key '{}'", lockKey);
+            lockManager.getMetrics().rejected(lockKey);
+            return Mono.error(new AtpLockRejectException("Too many waiters of lock by key " + lockKey));
+        }
+        return Mono.firstWithSignal(
+                Mono.delay(Duration.ofMillis(Math.min(wait.paceMillis, TimeUnit.NANOSECONDS.toMillis(remainingNanos))),
+                        Schedulers.parallel()),
+                Mono.<Long>create(sink -> wait.waiter.onRelease(() -> sink.success(0L))));
+    }
+
+    private void leave(final String lockKey, final ReactiveWait wait) {
+        wait.waiter.close();
+        if (wait.waiterId != null) {
+            scheduler.schedule(() -> lockManager.leaveQueue(lockKey, wait.waiterId));
+        }
+    }
+
+    private Mono<Void> release(final AcquiredLock lock) {
+        return Mono.<Void>fromRunnable(lock::release).subscribeOn(scheduler);
+    }
+
+    /**
+     * Wait of a subscriber for the lock; attempts are made one by one.
+     */
+    private static final class ReactiveWait {
+
+        /**
+         * Registration in the wait queue.
+         */
+        private final LockWaitQueue.Waiter waiter;
+
+        /**
+         * Time (System.nanoTime) the wait is started.
+         */
+        private final long startNanos = System.nanoTime();
+
+        /**
+         * Time (System.nanoTime) after which no more attempts are made.
+         */
+        private final long deadlineNanos;
+
+        /**
+         * Unique id of the fair waiter; null if the waiter isn't fair.
+         */
+        private final String waiterId;
+
+        /**
+         * The waiter makes attempts only when it's the first one in this JVM.
+         */
+        private final boolean localTurns;
+
+        /**
+         * Number of wait rounds so far, including the ones without attempts.
+         */
+        private volatile int rounds;
+
+        /**
+         * Number of attempts made so far.
+         */
+        private volatile int attempts;
+
+        /**
+         * Pause after the current round (milliseconds).
+         */
+        private volatile long paceMillis;
+
+        /**
+         * The subscriber cancelled the wait (true) or not; the lock obtained after that is released at once.
+         */
+        private volatile boolean cancelled;
+
+        private ReactiveWait(final LockWaitQueue.Waiter waiter, final long deadlineNanos, final String waiterId,
+                             final boolean localTurns) {
+            this.waiter = waiter;
+            this.deadlineNanos = deadlineNanos;
+            this.waiterId = waiterId;
+            this.localTurns = localTurns;
+        }
+    }
+}
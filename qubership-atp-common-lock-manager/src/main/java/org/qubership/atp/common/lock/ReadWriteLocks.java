@@ -0,0 +1,95 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.atp.common.lock;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+import org.qubership.atp.common.lock.exceptions.AtpLockRejectException;
+import org.qubership.atp.common.lock.provider.SharedLockProvider;
+
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+/**
+ * Acquisition of read (shared) locks. Any number of callers can hold read locks of the key at once,
+ * while the write lock is the exclusive lock of the key. If the lock provider doesn't implement
+ * {@link SharedLockProvider}, read lock is exclusive too.
+ */
+class ReadWriteLocks {
+
+    /**
+     * Lock manager the locks belong to.
+     */
+    private final LockManager lockManager;
+
+    /**
+     * Lock provider.
+     */
+    private final LockProvider lockProvider;
+
+    /**
+     * Constructor.
+     *
+     * @param lockManager  lock manager the locks belong to
+     * @param lockProvider lock provider.
+     */
+    ReadWriteLocks(final LockManager lockManager, final LockProvider lockProvider) {
+        this.lockManager = lockManager;
+        this.lockProvider = lockProvider;
+    }
+
+    /**
+     * Execute with read lock, and wait if the write lock is held, as configured by the options given.
+     * Read lock held by the current thread can't be upgraded to write lock.
+     *
+     * @param <T>      the type parameter
+     * @param lockKey  the lock key
+     * @param options  the lock options
+     * @param callable the callable
+     * @return the result of callable
+     * @throws AtpLockRejectException if the lock isn't obtained within max wait.
+     */
+    <T> T executeWithReadLock(final String lockKey, final LockOptions options, final Callable<T> callable) {
+        return lockManager.executeWithLockWaiting(lockKey, options.getLease(), options, true, callable);
+    }
+
+    /**
+     * Try to obtain the shared lock once.
+     * If the lock provider doesn't support shared locks, exclusive lock is obtained instead.
+     *
+     * @param lockKey        the lock key
+     * @param lockAtMostFor  the lock duration
+     * @param lockAtLeastFor min time the lock is held
+     * @return the lock if obtained, otherwise empty.
+     */
+    Optional<SimpleLock> tryAcquireShared(final String lockKey, final Duration lockAtMostFor,
+                                          final Duration lockAtLeastFor) {
+        if (lockProvider instanceof SharedLockProvider sharedLockProvider) {
+            LockConfiguration lockConfiguration = new LockConfiguration(LockKeys.compact(lockKey), lockAtMostFor,
+                    lockAtLeastFor);
+            LockBatcher batcher = lockManager.getLeaseBatcher();
+            return batcher != null
+                    ? batcher.lockShared(lockConfiguration)
+                    : sharedLockProvider.lockShared(lockConfiguration);
+        }
+        return lockManager.tryAcquire(lockKey, lockAtMostFor, lockAtLeastFor);
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock.actuator;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.qubership.atp.common.lock.HeldLock;
+import org.qubership.atp.common.lock.HoldEstimate;
+import org.qubership.atp.common.lock.LockManager;
+import org.qubership.atp.common.lock.LockWaiters;
+import org.qubership.atp.common.lock.provider.InMemoryLockProvider;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.support.Utils;
+
+/**
+ * Actuator endpoint {@code /actuator/atplocks}: lock records of the in-memory lock provider,
+ * locks held by this JVM, keys awaited in this JVM and hold time estimates by key prefix.
+ * Locks of a key can be released by force with {@code DELETE /actuator/atplocks/{key}};
+ * use {@code management.endpoint.atplocks.access=read-only} to forbid it.
+ */
+@Slf4j
+@Endpoint(id = "atplocks")
+public class AtpLocksEndpoint {
+
+    /**
+     * Lock manager of this JVM.
+     */
+    private final LockManager lockManager;
+
+    /**
+     * In-memory lock provider; null if another lock provider is used.
+     */
+    private final InMemoryLockProvider inMemoryLockProvider;
+
+    /**
+     * Name of this node, as written by ShedLock to lock records.
+     */
+    private final String node = Utils.getHostname();
+
+    /**
+     * Constructor.
+     *
+     * @param lockManager  lock manager of this JVM
+     * @param lockProvider lock provider; its records are listed only if it is InMemoryLockProvider.
+     */
+    public AtpLocksEndpoint(final LockManager lockManager, final LockProvider lockProvider) {
+        this.lockManager = lockManager;
+        this.inMemoryLockProvider = lockProvider instanceof InMemoryLockProvider provider ? provider : null;
+    }
+
+    /**
+     * Get current locks.
+     *
+     * @return lock records, locks held, keys awaited and hold time estimates, as of now.
+     */
+    @ReadOperation
+    public LocksDescriptor locks() {
+        List<HeldLock> heldLocks = lockManager.getHeldLocks();
+        Map<String, List<String>> holderThreads = new HashMap<>();
+        heldLocks.forEach(heldLock -> holderThreads.computeIfAbsent(heldLock.getLockKey(), key -> new ArrayList<>())
+                .add(heldLock.getHolderThread()));
+        List<RecordDescriptor> records = new ArrayList<>();
+        if (inMemoryLockProvider != null) {
+            inMemoryLockProvider.getRecords().forEach(record ->
+                    records.add(new RecordDescriptor(record, false, holderThreads.get(record.getName()))));
+            inMemoryLockProvider.getSharedRecords().forEach(record ->
+                    records.add(new RecordDescriptor(record, true, holderThreads.get(record.getName()))));
+        }
+        List<WaitersDescriptor> waiters = new ArrayList<>();
+        lockManager.getWaiters().forEach(lockWaiters -> waiters.add(new WaitersDescriptor(lockWaiters)));
+        return new LocksDescriptor(node, records, heldLocks, waiters, lockManager.getHoldEstimates());
+    }
+
+    /**
+     * Release locks of the key by force: locks held by this JVM, then remaining in-memory lock records.
+     * Tasks holding the locks aren't interrupted; locks held by other nodes in a shared lock storage aren't affected.
+     *
+     * @param key the lock key
+     * @return number of locks released and records removed.
+     */
+    @DeleteOperation
+    public ForceReleaseDescriptor forceRelease(@Selector final String key) {
+        log.warn("Force release of locks by key '{}' is requested", key);
+        int releasedLocks = lockManager.forceRelease(key);
+        int removedRecords = inMemoryLockProvider == null ? 0 : inMemoryLockProvider.forceUnlock(key);
+        return new ForceReleaseDescriptor(key, releasedLocks, removedRecords);
+    }
+
+    /**
+     * Current locks of this node.
+     */
+    @Getter
+    public static final class LocksDescriptor {
+
+        /**
+         * Name of this node.
+         */
+        private final String node;
+
+        /**
+         * Lock records of the in-memory lock provider.
+         */
+        private final List<RecordDescriptor> records;
+
+        /**
+         * Locks held by this JVM.
+         */
+        private final List<HeldLock> held;
+
+        /**
+         * Keys awaited in this JVM.
+         */
+        private final List<WaitersDescriptor> waiters;
+
+        /**
+         * Hold time estimates by key prefix.
+         */
+        private final List<HoldEstimate> holdEstimates;
+
+        private LocksDescriptor(final String node, final List<RecordDescriptor> records, final List<HeldLock> held,
+                                final List<WaitersDescriptor> waiters, final List<HoldEstimate> holdEstimates) {
+            this.node = node;
+            this.records = records;
+            this.held = held;
+            this.waiters = waiters;
+            this.holdEstimates = holdEstimates;
+        }
+    }
+
+    /**
+     * Lock record of the in-memory lock provider.
+     */
+    @Getter
+    public static final class RecordDescriptor {
+
+        /**
+         * The lock name.
+         */
+        private final String name;
+
+        /**
+         * Record of a shared (read) lock (true) or exclusive one (false).
+         */
+        private final boolean shared;
+
+        /**
+         * Time the lock expires.
+         */
+        private final Instant lockAtMostUntil;
+
+        /**
+         * Time the lock is held at least until.
+         */
+        private final Instant lockAtLeastUntil;
+
+        /**
+         * Threads of this JVM holding locks by the name; null if there are none, e.g. the lock is leaked.
+         */
+        private final List<String> holderThreads;
+
+        private RecordDescriptor(final LockConfiguration record, final boolean shared,
+                                 final List<String> holderThreads) {
+            this.name = record.getName();
+            this.shared = shared;
+            this.lockAtMostUntil = record.getLockAtMostUntil();
+            this.lockAtLeastUntil = record.getLockAtLeastUntil();
+            this.holderThreads = holderThreads;
+        }
+    }
+
+    /**
+     * Waiters of a key in this JVM.
+     */
+    @Getter
+    public static final class WaitersDescriptor {
+
+        /**
+         * The lock key.
+         */
+        private final String lockKey;
+
+        /**
+         * Number of waiters.
+         */
+        private final int count;
+
+        /**
+         * Time the oldest waiter has been waiting so far (milliseconds).
+         */
+        private final long oldestWaitMillis;
+
+        private WaitersDescriptor(final LockWaiters lockWaiters) {
+            this.lockKey = lockWaiters.getLockKey();
+            this.count = lockWaiters.getCount();
+            this.oldestWaitMillis = lockWaiters.getOldestWait().toMillis();
+        }
+    }
+
+    /**
+     * Result of force release.
+     */
+    @Getter
+    public static final class ForceReleaseDescriptor {
+
+        /**
+         * The lock key.
+         */
+        private final String lockKey;
+
+        /**
+         * Number of locks held by this JVM and released.
+         */
+        private final int releasedLocks;
+
+        /**
+         * Number of in-memory lock records removed after that, e.g. records of leaked locks.
+         */
+        private final int removedRecords;
+
+        private ForceReleaseDescriptor(final String lockKey, final int releasedLocks, final int removedRecords) {
+            this.lockKey = lockKey;
+            this.releasedLocks = releasedLocks;
+            this.removedRecords = removedRecords;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+package org.qubership.atp.common.lock.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Execute the method with lock of LockManager, and wait if busy; enabled by {@link EnableAtpLockManager}.
+ * The lock key is a SpEL expression over method parameters, e.g. "'sync:' + #projectId" or "'sync:' + #p0".
+ * Like other Spring AOP annotations, it applies to calls through the bean proxy only.
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AtpLocked {
+
+    /**
+     * SpEL expression of the lock key.
+     *
+     * @return the expression.
+     */
+    String key();
+
+    /**
+     * Lock duration, e.g. "30s"; the lease of lock options if empty.
+     *
+     * @return the lock duration.
+     */
+    String lease() default "";
+
+    /**
+     * Max time during which the lock is tried to be obtained, e.g. "5s"; the max wait of lock options if empty.
+     *
+     * @return the max wait.
+     */
+    String maxWait() default "";
+
+    /**
+     * Name of lock options profile; default lock options of LockManager if empty.
+     *
+     * @return the profile name.
+     */
+    String profile() default "";
+
+    /**
+     * What to do if the lock isn't obtained.
+     *
+     * @return the reject policy.
+     */
+    OnReject onReject() default OnReject.THROW;
+
+    /**
+     * Policies of rejected calls.
+     */
+    enum OnReject {
+
+        /**
+         * Throw AtpLockRejectException.
+         */
+        THROW,
+
+        /**
+         * Don't call the method and return null; not applicable to methods returning primitives.
+         */
+        RETURN_NULL
+    }
+}
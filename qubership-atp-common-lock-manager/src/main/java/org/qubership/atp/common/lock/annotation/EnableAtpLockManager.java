@@ -24,9 +24,10 @@ import java.lang.annotation.Target;
 import org.springframework.context.annotation.Import;
 
 import org.qubership.atp.common.lock.config.AtpLockConfig;
+import org.qubership.atp.common.lock.config.AtpLockedConfig;
 
 @Target({ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
-@Import({AtpLockConfig.class})
+@Import({AtpLockConfig.class, AtpLockedConfig.class})
 public @interface EnableAtpLockManager {
 }
@@ -0,0 +1,66 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+package org.qubership.atp.common.lock.aop;
+
+import org.qubership.atp.common.lock.LockManager;
+import org.qubership.atp.common.lock.annotation.AtpLocked;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Bean post processor proxying beans with {@link AtpLocked} methods.
+ * It doesn't need AspectJ or an auto-proxy creator, in the same way as the one of @Async.
+ * Annotations of each proxied class are checked once, when the class is found eligible, so misconfigured
+ * methods fail the bean creation rather than their calls.
+ */
+public class AtpLockedAnnotationBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    /**
+     * Constructor.
+     *
+     * @param lockManagerProvider provider of lock manager.
+     */
+    public AtpLockedAnnotationBeanPostProcessor(final ObjectProvider<LockManager> lockManagerProvider) {
+        this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(null, AtpLocked.class, true),
+                new AtpLockedMethodInterceptor(lockManagerProvider));
+        setBeforeExistingAdvisors(true);
+    }
+
+    /**
+     * Check whether the class has {@link AtpLocked} methods, and that their annotations are applicable.
+     *
+     * @param targetClass the class of the bean
+     * @return true if the bean is to be proxied.
+     * @throws IllegalStateException if an annotation isn't applicable to its method.
+     */
+    @Override
+    protected boolean isEligible(final Class<?> targetClass) {
+        boolean eligible = super.isEligible(targetClass);
+        if (eligible) {
+            ReflectionUtils.doWithMethods(targetClass, method -> {
+                AtpLocked annotation = AnnotatedElementUtils.findMergedAnnotation(method, AtpLocked.class);
+                if (annotation != null) {
+                    AtpLockedMethodInterceptor.checkOnReject(method, annotation);
+                }
+            });
+        }
+        return eligible;
+    }
+}
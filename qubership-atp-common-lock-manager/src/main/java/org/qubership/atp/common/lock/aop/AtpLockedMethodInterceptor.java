@@ -0,0 +1,239 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+package org.qubership.atp.common.lock.aop;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.qubership.atp.common.lock.LockManager;
+import org.qubership.atp.common.lock.LockOptions;
+import org.qubership.atp.common.lock.annotation.AtpLocked;
+import org.qubership.atp.common.lock.exceptions.AtpLockRejectException;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import lombok.SneakyThrows;
+
+/**
+ * Interceptor of {@link AtpLocked} methods executing them with lock of LockManager.
+ * Key expression and lock options are parsed once per method; each call only evaluates the key expression.
+ */
+public class AtpLockedMethodInterceptor implements MethodInterceptor {
+
+    /**
+     * Parser of key expressions; frequently evaluated expressions are compiled to bytecode.
+     */
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, AtpLockedMethodInterceptor.class.getClassLoader()));
+
+    /**
+     * Discoverer of method parameter names for key expressions.
+     */
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    /**
+     * Provider of lock manager; resolved lazily, on the first call.
+     */
+    private final ObjectProvider<LockManager> lockManagerProvider;
+
+    /**
+     * Lock manager resolved on the first call.
+     */
+    private volatile LockManager lockManager;
+
+    /**
+     * Parsed metadata by method and target class; package-private, so that tests can check the cache.
+     */
+    final Map<MethodClassKey, LockedMethod> lockedMethods = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param lockManagerProvider provider of lock manager.
+     */
+    public AtpLockedMethodInterceptor(final ObjectProvider<LockManager> lockManagerProvider) {
+        this.lockManagerProvider = lockManagerProvider;
+    }
+
+    /**
+     * Execute the method with lock, if it's annotated with {@link AtpLocked}.
+     *
+     * @param invocation the method invocation
+     * @return the result of the method, or null if the lock isn't obtained and reject policy is RETURN_NULL.
+     * @throws Throwable in case the method throws it, or AtpLockRejectException if the lock isn't obtained.
+     */
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+        Class<?> targetClass = invocation.getThis() == null ? null : AopUtils.getTargetClass(invocation.getThis());
+        LockedMethod lockedMethod = lockedMethods.computeIfAbsent(
+                new MethodClassKey(invocation.getMethod(), targetClass),
+                key -> parse(invocation.getMethod(), targetClass));
+        if (lockedMethod == LockedMethod.NOT_LOCKED) {
+            return invocation.proceed();
+        }
+        Object lockKey = lockedMethod.keyExpression.getValue(new MethodBasedEvaluationContext(invocation.getThis(),
+                lockedMethod.method, invocation.getArguments(), PARAMETER_NAME_DISCOVERER));
+        LockManager currentLockManager = getLockManager();
+        return currentLockManager.executeWithLock(String.valueOf(lockKey), lockedMethod.getOptions(currentLockManager),
+                () -> proceed(invocation), lockedMethod.onReject);
+    }
+
+    /**
+     * Check that reject policy of the annotation is applicable to the method.
+     *
+     * @param method     the annotated method
+     * @param annotation the annotation of the method
+     * @throws IllegalStateException if reject policy is RETURN_NULL and the method returns a primitive.
+     */
+    static void checkOnReject(final Method method, final AtpLocked annotation) {
+        Class<?> returnType = method.getReturnType();
+        if (annotation.onReject() == AtpLocked.OnReject.RETURN_NULL && returnType.isPrimitive()
+                && returnType != void.class) {
+            throw new IllegalStateException("@AtpLocked(onReject = RETURN_NULL) isn't applicable to method " + method
+                    + " returning " + returnType);
+        }
+    }
+
+    private LockManager getLockManager() {
+        LockManager current = lockManager;
+        if (current == null) {
+            current = lockManagerProvider.getObject();
+            lockManager = current;
+        }
+        return current;
+    }
+
+    @SneakyThrows
+    private static Object proceed(final MethodInvocation invocation) {
+        return invocation.proceed();
+    }
+
+    private static LockedMethod parse(final Method method, final Class<?> targetClass) {
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        AtpLocked annotation = AnnotatedElementUtils.findMergedAnnotation(specificMethod, AtpLocked.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(method, AtpLocked.class);
+        }
+        if (annotation == null) {
+            return LockedMethod.NOT_LOCKED;
+        }
+        return new LockedMethod(specificMethod, annotation);
+    }
+
+    /**
+     * Metadata of a locked method parsed from its annotation.
+     */
+    static final class LockedMethod {
+
+        /**
+         * Marker of methods without annotation.
+         */
+        private static final LockedMethod NOT_LOCKED = new LockedMethod();
+
+        /**
+         * The method whose parameters key expression refers to.
+         */
+        private final Method method;
+
+        /**
+         * Parsed key expression.
+         */
+        final Expression keyExpression;
+
+        /**
+         * Name of lock options profile; null for default options.
+         */
+        private final String profile;
+
+        /**
+         * Lock duration; null for the one of lock options.
+         */
+        private final Duration lease;
+
+        /**
+         * Max wait; null for the one of lock options.
+         */
+        private final Duration maxWait;
+
+        /**
+         * Supplier of the result of rejected call.
+         */
+        private final Supplier<Object> onReject;
+
+        /**
+         * Lock options resolved on the first call, since lock manager options may be configured after parsing.
+         */
+        private volatile LockOptions options;
+
+        private LockedMethod() {
+            this.method = null;
+            this.keyExpression = null;
+            this.profile = null;
+            this.lease = null;
+            this.maxWait = null;
+            this.onReject = null;
+        }
+
+        private LockedMethod(final Method method, final AtpLocked annotation) {
+            checkOnReject(method, annotation);
+            this.method = method;
+            this.keyExpression = PARSER.parseExpression(annotation.key());
+            this.profile = annotation.profile().isEmpty() ? null : annotation.profile();
+            this.lease = annotation.lease().isEmpty() ? null : DurationStyle.detectAndParse(annotation.lease());
+            this.maxWait = annotation.maxWait().isEmpty() ? null : DurationStyle.detectAndParse(annotation.maxWait());
+            this.onReject = switch (annotation.onReject()) {
+                case RETURN_NULL -> () -> null;
+                default -> () -> {
+                    throw new AtpLockRejectException("Cannot obtain lock for method " + method);
+                };
+            };
+        }
+
+        private LockOptions getOptions(final LockManager lockManager) {
+            LockOptions current = options;
+            if (current == null) {
+                current = profile == null ? lockManager.getDefaultOptions() : lockManager.getOptions(profile);
+                if (lease != null || maxWait != null) {
+                    LockOptions.LockOptionsBuilder builder = current.toBuilder();
+                    if (lease != null) {
+                        builder.lease(lease);
+                    }
+                    if (maxWait != null) {
+                        builder.maxWait(maxWait);
+                    }
+                    current = builder.build();
+                }
+                options = current;
+            }
+            return current;
+        }
+    }
+}
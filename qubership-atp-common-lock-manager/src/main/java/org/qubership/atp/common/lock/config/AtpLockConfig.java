@@ -16,16 +16,31 @@
 
 package org.qubership.atp.common.lock.config;
 
+import java.nio.file.Path;
+import java.time.Duration;
+
 import org.qubership.atp.common.lock.LockManager;
+import org.qubership.atp.common.lock.LockMetrics;
+import org.qubership.atp.common.lock.LockOptions;
+import org.qubership.atp.common.lock.ReactiveLockManager;
+import org.qubership.atp.common.lock.actuator.AtpLocksEndpoint;
+import org.qubership.atp.common.lock.metrics.InMemoryLockProviderMetrics;
+import org.qubership.atp.common.lock.metrics.LockKeyTagExtractor;
+import org.qubership.atp.common.lock.metrics.MicrometerLockMetrics;
+import org.qubership.atp.common.lock.provider.FileLockProvider;
 import org.qubership.atp.common.lock.provider.InMemoryLockProvider;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import net.javacrumbs.shedlock.core.LockProvider;
 
 @Configuration
+@EnableConfigurationProperties(LockProfilesProperties.class)
 public class AtpLockConfig {
 
     /**
@@ -46,25 +61,203 @@ public class AtpLockConfig {
     @Value("${atp.lock.retry.pace.sec:3}")
     private Integer retryPaceSec;
 
+    /**
+     * Backoff strategy between lock retries.
+     */
+    @Value("${atp.lock.retry.backoff:FIXED}")
+    private LockOptions.Backoff retryBackoff;
+
+    /**
+     * Max interval between lock retries (seconds); 0 means no cap except retry timeout.
+     */
+    @Value("${atp.lock.retry.pace.max.sec:0}")
+    private Integer maxRetryPaceSec;
+
+    /**
+     * Number of first lock retries made with fast retry pace.
+     */
+    @Value("${atp.lock.retry.fast.count:0}")
+    private Integer fastRetries;
+
+    /**
+     * Interval of fast lock retries (milliseconds).
+     */
+    @Value("${atp.lock.retry.fast.pace.ms:100}")
+    private Integer fastRetryPaceMs;
+
+    /**
+     * Lock waiters are served in arrival order (true) or not.
+     */
+    @Value("${atp.lock.fair.enabled:false}")
+    private Boolean fair;
+
+    /**
+     * Max number of callers waiting for the same key at once; 0 means no limit.
+     */
+    @Value("${atp.lock.waiters.max.per.key:0}")
+    private Integer maxWaitersPerKey;
+
+    /**
+     * Max number of callers waiting for any keys at once; 0 means no limit.
+     */
+    @Value("${atp.lock.waiters.max:0}")
+    private Integer maxWaiters;
+
+    /**
+     * Pause between lock retries follows the observed hold time of the key prefix (true) or not.
+     */
+    @Value("${atp.lock.adaptive.retry.pace.enabled:false}")
+    private Boolean adaptiveRetryPace;
+
+    /**
+     * Lock duration of calls without one given follows the observed hold time of the key prefix (true) or not.
+     */
+    @Value("${atp.lock.adaptive.lease.enabled:false}")
+    private Boolean adaptiveLease;
+
+    /**
+     * Max number of lock attempts coalesced into one lock provider call; 0 or 1 means no lease batching.
+     */
+    @Value("${atp.lock.batch.max.size:0}")
+    private Integer leaseBatchMaxSize;
+
+    /**
+     * Time a lock attempt waits for other ones to join its batch (milliseconds).
+     */
+    @Value("${atp.lock.batch.window.ms:1}")
+    private Integer leaseBatchWindowMs;
+
+    /**
+     * Interval of lease renewal while the task is running (seconds); 0 means no renewal.
+     */
+    @Value("${atp.lock.lease.renewal.interval.sec:0}")
+    private Integer leaseRenewalIntervalSec;
+
+    /**
+     * Serialize callers of this JVM through a local per-key lock before the lock provider (true) or not.
+     */
+    @Value("${atp.lock.local.first.enabled:false}")
+    private Boolean localLockFirst;
+
+    /**
+     * Min interval between evictions of expired in-memory lock records (seconds).
+     */
+    @Value("${atp.lock.inmemory.eviction.interval.sec:60}")
+    private Integer evictionIntervalSec;
+
+    /**
+     * Path of the lock table file shared by JVMs of the host; empty means in-memory locks of this JVM only.
+     */
+    @Value("${atp.lock.file.path:}")
+    private String lockFilePath;
+
     /**
      * Create lockProvider bean.
      *
-     * @return new InMemoryLockProvider object.
+     * @return new FileLockProvider object if lock file path is set; otherwise new InMemoryLockProvider object.
      */
     @Bean
     @ConditionalOnMissingBean
     public LockProvider lockProvider() {
-        return new InMemoryLockProvider();
+        if (!lockFilePath.isBlank()) {
+            return new FileLockProvider(Path.of(lockFilePath));
+        }
+        return new InMemoryLockProvider(Duration.ofSeconds(evictionIntervalSec));
     }
 
     /**
      * Create lockManager bean given LockProvider.
      *
      * @param lockProvider LockProvider object
+     * @param lockProfilesProperties LockProfilesProperties object
+     * @param lockMetrics LockMetrics bean, if any
+     * @param keyTagExtractor LockKeyTagExtractor bean, if any; it also groups keys of hold time estimates
      * @return new LockManager object created and configured.
      */
-    @Bean
-    public LockManager lockManager(final LockProvider lockProvider) {
-        return new LockManager(defaultLockDurationSec, retryTimeoutSec, retryPaceSec, lockProvider);
+    @Bean(destroyMethod = "shutdown")
+    public LockManager lockManager(final LockProvider lockProvider,
+                                   final LockProfilesProperties lockProfilesProperties,
+                                   final ObjectProvider<LockMetrics> lockMetrics,
+                                   final ObjectProvider<LockKeyTagExtractor> keyTagExtractor) {
+        LockManager lockManager = new LockManager(defaultLockDurationSec, retryTimeoutSec, retryPaceSec, lockProvider);
+        lockManager.setLeaseRenewalIntervalSec(leaseRenewalIntervalSec);
+        lockManager.setLocalLockFirst(localLockFirst);
+        lockManager.setMaxWaitersPerKey(maxWaitersPerKey);
+        lockManager.setMaxWaiters(maxWaiters);
+        lockManager.setAdaptiveRetryPace(adaptiveRetryPace);
+        lockManager.setAdaptiveLease(adaptiveLease);
+        lockManager.setLeaseBatching(Duration.ofMillis(leaseBatchWindowMs), leaseBatchMaxSize);
+        lockManager.setDefaultOptions(lockManager.getDefaultOptions().toBuilder()
+                .backoff(retryBackoff)
+                .maxRetryPace(maxRetryPaceSec > 0 ? Duration.ofSeconds(maxRetryPaceSec) : null)
+                .fastRetries(fastRetries)
+                .fastRetryPace(Duration.ofMillis(fastRetryPaceMs))
+                .fair(fair)
+                .build());
+        lockManager.setProfiles(lockProfilesProperties.toOptions(lockManager.getDefaultOptions()));
+        lockMetrics.ifAvailable(lockManager::setMetrics);
+        keyTagExtractor.ifAvailable(lockManager::setKeyPrefixExtractor);
+        return lockManager;
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class LockMetricsConfig {
+
+        /**
+         * Create metrics binder of in-memory lock provider.
+         *
+         * @param lockProvider LockProvider object
+         * @return new InMemoryLockProviderMetrics object.
+         */
+        @Bean
+        public InMemoryLockProviderMetrics inMemoryLockProviderMetrics(final LockProvider lockProvider) {
+            return new InMemoryLockProviderMetrics(lockProvider);
+        }
+
+        /**
+         * Create lock metrics of LockManager, bound to MeterRegistry beans as MeterBinder.
+         *
+         * @param keyTagExtractor LockKeyTagExtractor bean, if any; the default one otherwise
+         * @return new MicrometerLockMetrics object.
+         */
+        @Bean
+        public MicrometerLockMetrics lockMetrics(final ObjectProvider<LockKeyTagExtractor> keyTagExtractor) {
+            return new MicrometerLockMetrics(keyTagExtractor.getIfAvailable(() -> LockKeyTagExtractor.DEFAULT));
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class LockEndpointConfig {
+
+        /**
+         * Create actuator endpoint of locks.
+         *
+         * @param lockManager  LockManager object
+         * @param lockProvider LockProvider object
+         * @return new AtpLocksEndpoint object.
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public AtpLocksEndpoint atpLocksEndpoint(final LockManager lockManager, final LockProvider lockProvider) {
+            return new AtpLocksEndpoint(lockManager, lockProvider);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "reactor.core.publisher.Mono")
+    static class ReactiveLockConfig {
+
+        /**
+         * Create reactiveLockManager bean given LockManager.
+         *
+         * @param lockManager LockManager object
+         * @return new ReactiveLockManager object.
+         */
+        @Bean
+        public ReactiveLockManager reactiveLockManager(final LockManager lockManager) {
+            return new ReactiveLockManager(lockManager);
+        }
     }
 }
@@ -0,0 +1,44 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.atp.common.lock.config;
+
+import org.qubership.atp.common.lock.LockManager;
+import org.qubership.atp.common.lock.aop.AtpLockedAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Declarative locking of {@link org.qubership.atp.common.lock.annotation.AtpLocked} methods;
+ * imported by {@link org.qubership.atp.common.lock.annotation.EnableAtpLockManager}.
+ */
+@Configuration
+public class AtpLockedConfig {
+
+    /**
+     * Create post processor of {@link org.qubership.atp.common.lock.annotation.AtpLocked} methods.
+     *
+     * @param lockManagerProvider provider of LockManager bean
+     * @return new AtpLockedAnnotationBeanPostProcessor object.
+     */
+    @Bean
+    public static AtpLockedAnnotationBeanPostProcessor atpLockedAnnotationBeanPostProcessor(
+            final ObjectProvider<LockManager> lockManagerProvider) {
+        return new AtpLockedAnnotationBeanPostProcessor(lockManagerProvider);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.qubership.atp.common.lock.LockOptions;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Named lock options profiles, e.g. atp.lock.profiles.fast.max-wait=200ms.
+ * Options not set in a profile are taken from the default ones.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "atp.lock")
+public class LockProfilesProperties {
+
+    /**
+     * Profiles by name.
+     */
+    private Map<String, Profile> profiles = new LinkedHashMap<>();
+
+    /**
+     * Build lock options of all profiles.
+     *
+     * @param defaultOptions options used for values not set in a profile
+     * @return lock options by profile name.
+     */
+    public Map<String, LockOptions> toOptions(final LockOptions defaultOptions) {
+        Map<String, LockOptions> options = new LinkedHashMap<>();
+        profiles.forEach((name, profile) -> options.put(name, profile.toOptions(defaultOptions)));
+        return options;
+    }
+
+    @Getter
+    @Setter
+    public static class Profile {
+
+        /**
+         * Lock duration.
+         */
+        private Duration lease;
+
+        /**
+         * Max time during which the lock is tried to be obtained.
+         */
+        private Duration maxWait;
+
+        /**
+         * Pause between two attempts to obtain the lock.
+         */
+        private Duration retryPace;
+
+        /**
+         * Backoff strategy between attempts.
+         */
+        private LockOptions.Backoff backoff;
+
+        /**
+         * Random deviation of each pause, as a fraction of the pause (from 0 to 1).
+         */
+        private Double jitter;
+
+        /**
+         * Min time the lock is held.
+         */
+        private Duration minHold;
+
+        /**
+         * Max pause between two attempts.
+         */
+        private Duration maxRetryPace;
+
+        /**
+         * Number of first retries made with fast retry pace.
+         */
+        private Integer fastRetries;
+
+        /**
+         * Pause of fast retries.
+         */
+        private Duration fastRetryPace;
+
+        /**
+         * Waiters obtain the lock in arrival order.
+         */
+        private Boolean fair;
+
+        /**
+         * Build lock options of the profile.
+         *
+         * @param defaultOptions options used for values not set in the profile
+         * @return new LockOptions object.
+         */
+        public LockOptions toOptions(final LockOptions defaultOptions) {
+            LockOptions.LockOptionsBuilder builder = defaultOptions.toBuilder();
+            if (lease != null) {
+                builder.lease(lease);
+            }
+            if (maxWait != null) {
+                builder.maxWait(maxWait);
+            }
+            if (retryPace != null) {
+                builder.retryPace(retryPace);
+            }
+            if (backoff != null) {
+                builder.backoff(backoff);
+            }
+            if (jitter != null) {
+                builder.jitter(jitter);
+            }
+            if (minHold != null) {
+                builder.minHold(minHold);
+            }
+            if (maxRetryPace != null) {
+                builder.maxRetryPace(maxRetryPace);
+            }
+            if (fastRetries != null) {
+                builder.fastRetries(fastRetries);
+            }
+            if (fastRetryPace != null) {
+                builder.fastRetryPace(fastRetryPace);
+            }
+            if (fair != null) {
+                builder.fair(fair);
+            }
+            return builder.build();
+        }
+    }
+}
@@ -16,6 +16,10 @@
 
 package org.qubership.atp.common.lock.exceptions;
 
+/**
+ * Exception thrown when the lock isn't obtained. Stack trace isn't captured,
+ * because rejection is an expected outcome under contention rather than a programming error.
+ */
 public class AtpLockRejectException extends RuntimeException {
 
     /**
@@ -24,6 +28,6 @@ public class AtpLockRejectException extends RuntimeException {
      * @param message String exception message.
      */
     public AtpLockRejectException(final String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,61 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock.metrics;
+
+import org.qubership.atp.common.lock.provider.InMemoryLockProvider;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.lang.NonNull;
+import net.javacrumbs.shedlock.core.LockProvider;
+
+public class InMemoryLockProviderMetrics implements MeterBinder {
+
+    /**
+     * Lock Records Count metric name.
+     */
+    public static final String METRIC_NAME_RECORDS = "atp.lock.inmemory.records";
+
+    /**
+     * Lock provider to bind metrics of.
+     */
+    private final LockProvider lockProvider;
+
+    /**
+     * Constructor.
+     *
+     * @param lockProvider LockProvider object; metrics are bound only if it is InMemoryLockProvider.
+     */
+    public InMemoryLockProviderMetrics(final LockProvider lockProvider) {
+        this.lockProvider = lockProvider;
+    }
+
+    /**
+     * Bind lock records count gauge to MeterRegistry registry.
+     *
+     * @param registry MeterRegistry object.
+     */
+    @Override
+    public void bindTo(@NonNull final MeterRegistry registry) {
+        if (lockProvider instanceof InMemoryLockProvider inMemoryLockProvider) {
+            Gauge.builder(METRIC_NAME_RECORDS, inMemoryLockProvider, InMemoryLockProvider::getRecordCount)
+                    .description("Number of lock records stored in memory, including expired ones not evicted yet")
+                    .register(registry);
+        }
+    }
+}
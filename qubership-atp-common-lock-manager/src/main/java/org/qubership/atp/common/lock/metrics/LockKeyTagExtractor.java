@@ -0,0 +1,54 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+package org.qubership.atp.common.lock.metrics;
+
+/**
+ * Extractor of the key tag of lock metrics from the lock key. It must map keys to a bounded set of tags,
+ * e.g. 'sync:' + projectId to 'sync', since each tag value creates meters of its own.
+ */
+@FunctionalInterface
+public interface LockKeyTagExtractor {
+
+    /**
+     * Max length of the default tag.
+     */
+    int MAX_DEFAULT_TAG_LENGTH = 32;
+
+    /**
+     * Tag of keys without leading letters.
+     */
+    String OTHER_TAG = "other";
+
+    /**
+     * Default extractor: leading letters of the key, e.g. 'sync' for 'sync:1234', or 'other' if there are none.
+     */
+    LockKeyTagExtractor DEFAULT = lockKey -> {
+        int length = 0;
+        while (length < lockKey.length() && length < MAX_DEFAULT_TAG_LENGTH
+                && Character.isLetter(lockKey.charAt(length))) {
+            length++;
+        }
+        return length == 0 ? OTHER_TAG : lockKey.substring(0, length);
+    };
+
+    /**
+     * Extract the key tag.
+     *
+     * @param lockKey the lock key
+     * @return the key tag.
+     */
+    String extract(String lockKey);
+}
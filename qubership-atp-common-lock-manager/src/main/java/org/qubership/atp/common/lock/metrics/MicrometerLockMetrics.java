@@ -0,0 +1,196 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+package org.qubership.atp.common.lock.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.qubership.atp.common.lock.LockMetrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.lang.NonNull;
+
+/**
+ * Lock metrics of LockManager recorded to Micrometer, tagged by the key tag of {@link LockKeyTagExtractor}.
+ * Nothing is recorded until the binder is bound to a MeterRegistry; meters of each tag are cached.
+ * The binder may be bound to several registries: meters are registered in each of them, including meters
+ * created before the registry is bound.
+ */
+public class MicrometerLockMetrics implements LockMetrics, MeterBinder {
+
+    /**
+     * Lock Wait Time metric name.
+     */
+    public static final String METRIC_NAME_WAIT = "atp.lock.wait";
+
+    /**
+     * Lock Hold Time metric name.
+     */
+    public static final String METRIC_NAME_HOLD = "atp.lock.hold";
+
+    /**
+     * Lock Attempts per Acquisition metric name.
+     */
+    public static final String METRIC_NAME_ATTEMPTS = "atp.lock.attempts";
+
+    /**
+     * Lock Rejections metric name.
+     */
+    public static final String METRIC_NAME_REJECTIONS = "atp.lock.rejections";
+
+    /**
+     * Lease Expirations while the task is running metric name.
+     */
+    public static final String METRIC_NAME_LEASE_EXPIRATIONS = "atp.lock.lease.expirations";
+
+    /**
+     * Name of the key tag.
+     */
+    public static final String TAG_KEY = "key";
+
+    /**
+     * Extractor of the key tag.
+     */
+    private final LockKeyTagExtractor keyTagExtractor;
+
+    /**
+     * Registry meters are registered in, composed of all registries the binder is bound to.
+     */
+    private final CompositeMeterRegistry registry = new CompositeMeterRegistry();
+
+    /**
+     * The binder is bound to a registry (true) or not.
+     */
+    private volatile boolean bound;
+
+    /**
+     * Meters by key tag.
+     */
+    private final Map<String, KeyMeters> meters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param keyTagExtractor extractor of the key tag.
+     */
+    public MicrometerLockMetrics(final LockKeyTagExtractor keyTagExtractor) {
+        this.keyTagExtractor = keyTagExtractor;
+    }
+
+    /**
+     * Bind lock metrics to MeterRegistry registry; meters are registered on first use of each key tag,
+     * and meters already created are registered in the registry too.
+     *
+     * @param registry MeterRegistry object.
+     */
+    @Override
+    public void bindTo(@NonNull final MeterRegistry registry) {
+        this.registry.add(registry);
+        bound = true;
+    }
+
+    @Override
+    public void acquired(final String lockKey, final long waitNanos, final int attempts) {
+        KeyMeters keyMeters = meters(lockKey);
+        if (keyMeters != null) {
+            keyMeters.wait.record(waitNanos, TimeUnit.NANOSECONDS);
+            keyMeters.attempts.record(attempts);
+        }
+    }
+
+    @Override
+    public void released(final String lockKey, final long holdNanos, final boolean leaseExpired) {
+        KeyMeters keyMeters = meters(lockKey);
+        if (keyMeters != null) {
+            keyMeters.hold.record(holdNanos, TimeUnit.NANOSECONDS);
+            if (leaseExpired) {
+                keyMeters.leaseExpirations.increment();
+            }
+        }
+    }
+
+    @Override
+    public void rejected(final String lockKey) {
+        KeyMeters keyMeters = meters(lockKey);
+        if (keyMeters != null) {
+            keyMeters.rejections.increment();
+        }
+    }
+
+    private KeyMeters meters(final String lockKey) {
+        if (!bound) {
+            return null;
+        }
+        return meters.computeIfAbsent(keyTagExtractor.extract(lockKey), tag -> new KeyMeters(registry, tag));
+    }
+
+    private static final class KeyMeters {
+
+        /**
+         * Wait time until the lock is obtained.
+         */
+        private final Timer wait;
+
+        /**
+         * Hold time of the lock.
+         */
+        private final Timer hold;
+
+        /**
+         * Number of attempts per obtained lock.
+         */
+        private final DistributionSummary attempts;
+
+        /**
+         * Number of locks not obtained within max wait.
+         */
+        private final Counter rejections;
+
+        /**
+         * Number of leases expired before the task was finished.
+         */
+        private final Counter leaseExpirations;
+
+        private KeyMeters(final MeterRegistry registry, final String tag) {
+            this.wait = Timer.builder(METRIC_NAME_WAIT)
+                    .description("Time waited until the lock is obtained")
+                    .tag(TAG_KEY, tag)
+                    .register(registry);
+            this.hold = Timer.builder(METRIC_NAME_HOLD)
+                    .description("Time the lock is held")
+                    .tag(TAG_KEY, tag)
+                    .register(registry);
+            this.attempts = DistributionSummary.builder(METRIC_NAME_ATTEMPTS)
+                    .description("Number of attempts made to obtain the lock")
+                    .tag(TAG_KEY, tag)
+                    .register(registry);
+            this.rejections = Counter.builder(METRIC_NAME_REJECTIONS)
+                    .description("Number of locks not obtained within max wait")
+                    .tag(TAG_KEY, tag)
+                    .register(registry);
+            this.leaseExpirations = Counter.builder(METRIC_NAME_LEASE_EXPIRATIONS)
+                    .description("Number of lock leases expired before the task was finished")
+                    .tag(TAG_KEY, tag)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,440 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.atp.common.lock.partition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.qubership.atp.common.lock.LockHandle;
+import org.qubership.atp.common.lock.LockManager;
+
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ownership of work items split by key hash into a fixed number of partitions.
+ * Each node claims a fair share of partitions through leases obtained by {@link LockManager#tryLock}
+ * and renews them periodically, so a node asks {@link #owns(String)} locally instead of locking each item.
+ * Each node keeps a heartbeat key of its own member slot, taken as the lowest free slot on join and renewed
+ * with the partitions. A joining node looks up the slots below its own once; afterwards each rebalance probes
+ * a single slot of another node in turn, so a rebalance costs one call per owned partition plus a few,
+ * whatever the number of nodes. When a node joins, the others release partitions above the fair share
+ * as they find its slot; when a node leaves, its partitions are claimed after their lease expires.
+ * Ownership is reported only until the lease obtained or renewed last is about to expire.
+ * A partition has at most one owner as long as the lock provider extends a lock only for the acquisition
+ * holding it, as the in-memory and file lock providers do: a node stalled longer than the lease then fails
+ * to renew partitions claimed by others meanwhile, and drops them. The lock provider must support lease extension.
+ */
+@Slf4j
+public class PartitionedWorkCoordinator implements AutoCloseable {
+
+    /**
+     * Default max number of nodes counted.
+     */
+    public static final int DEFAULT_MAX_MEMBERS = 16;
+
+    /**
+     * Share of the lease kept as a safety margin of local ownership.
+     */
+    private static final int MARGIN_DIVISOR = 10;
+
+    /**
+     * Number of rebalances per lease.
+     */
+    private static final int REBALANCES_PER_LEASE = 3;
+
+    /**
+     * Lock manager the leases are obtained by.
+     */
+    private final LockManager lockManager;
+
+    /**
+     * Name of the coordinated work; prefix of the lease keys.
+     */
+    private final String name;
+
+    /**
+     * Number of partitions.
+     */
+    private final int partitions;
+
+    /**
+     * Lease of partitions and member slots.
+     */
+    private final Duration lease;
+
+    /**
+     * Max number of nodes counted; nodes above it take no member slot and rely on the others.
+     */
+    private final int maxMembers;
+
+    /**
+     * Time (System.nanoTime) until which each partition is owned locally; 0 if it isn't owned.
+     */
+    private final AtomicLongArray ownedUntilNanos;
+
+    /**
+     * Leases of owned partitions; guarded by this.
+     */
+    private final LockHandle[] partitionLeases;
+
+    /**
+     * Lease of the member slot of this node, if any; guarded by this.
+     */
+    private LockHandle memberLease;
+
+    /**
+     * Index of the member slot of this node; guarded by this.
+     */
+    private int memberSlot;
+
+    /**
+     * Member slots of other nodes found held when probed last; guarded by this.
+     */
+    private final boolean[] liveSlots;
+
+    /**
+     * Member slot probed last; guarded by this.
+     */
+    private int probedSlot;
+
+    /**
+     * Scheduler of rebalances; created on start.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * The coordinator is closed (true) or not; guarded by this.
+     */
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param lockManager lock manager the leases are obtained by
+     * @param name        name of the coordinated work; prefix of the lease keys
+     * @param partitions  number of partitions
+     * @param lease       lease of partitions; it's renewed three times per lease.
+     */
+    public PartitionedWorkCoordinator(final LockManager lockManager,
+                                      final String name,
+                                      final int partitions,
+                                      final Duration lease) {
+        this(lockManager, name, partitions, lease, DEFAULT_MAX_MEMBERS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param lockManager lock manager the leases are obtained by
+     * @param name        name of the coordinated work; prefix of the lease keys
+     * @param partitions  number of partitions
+     * @param lease       lease of partitions; it's renewed three times per lease
+     * @param maxMembers  max number of nodes counted; nodes above it take no member slot and rely on the others.
+     */
+    public PartitionedWorkCoordinator(final LockManager lockManager,
+                                      final String name,
+                                      final int partitions,
+                                      final Duration lease,
+                                      final int maxMembers) {
+        if (partitions <= 0 || maxMembers <= 0) {
+            throw new IllegalArgumentException("Number of partitions and max number of members must be positive");
+        }
+        if (lease.toMillis() < REBALANCES_PER_LEASE) {
+            throw new IllegalArgumentException("Lease " + lease + " is too short");
+        }
+        this.lockManager = lockManager;
+        this.name = name;
+        this.partitions = partitions;
+        this.lease = lease;
+        this.maxMembers = maxMembers;
+        this.ownedUntilNanos = new AtomicLongArray(partitions);
+        this.partitionLeases = new LockHandle[partitions];
+        this.liveSlots = new boolean[maxMembers];
+    }
+
+    /**
+     * Claim partitions now and schedule rebalances three times per lease.
+     */
+    public synchronized void start() {
+        if (closed) {
+            throw new IllegalStateException("Coordinator of '" + name + "' is closed");
+        }
+        if (scheduler != null) {
+            return;
+        }
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                new ThreadFactoryBuilder().setNameFormat("atp-lock-partitions-" + name + "-%d").setDaemon(true)
+                        .build());
+        executor.setRemoveOnCancelPolicy(true);
+        long periodMillis = lease.toMillis() / REBALANCES_PER_LEASE;
+        executor.scheduleWithFixedDelay(this::rebalance, 0, periodMillis, TimeUnit.MILLISECONDS);
+        scheduler = executor;
+    }
+
+    /**
+     * Get the partition of the key.
+     *
+     * @param key the work item key
+     * @return index of the partition, from 0 to number of partitions - 1.
+     */
+    public int partitionOf(final String key) {
+        return Hashing.consistentHash(Hashing.murmur3_128().hashString(key, StandardCharsets.UTF_8), partitions);
+    }
+
+    /**
+     * Check whether this node owns the key; no lock provider call is made.
+     *
+     * @param key the work item key
+     * @return true if the partition of the key is owned by this node and its lease hasn't come close to expiry.
+     */
+    public boolean owns(final String key) {
+        return ownsPartition(partitionOf(key));
+    }
+
+    /**
+     * Check whether this node owns the partition; no lock provider call is made.
+     *
+     * @param partition index of the partition
+     * @return true if the partition is owned by this node and its lease hasn't come close to expiry.
+     */
+    public boolean ownsPartition(final int partition) {
+        long until = ownedUntilNanos.get(partition);
+        return until != 0 && System.nanoTime() - until < 0;
+    }
+
+    /**
+     * Get partitions owned by this node.
+     *
+     * @return indexes of owned partitions, as of now.
+     */
+    public List<Integer> getOwnedPartitions() {
+        List<Integer> owned = new ArrayList<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            if (ownsPartition(partition)) {
+                owned.add(partition);
+            }
+        }
+        return owned;
+    }
+
+    /**
+     * Get the number of partitions.
+     *
+     * @return number of partitions.
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Renew owned leases, count nodes, then release partitions above the fair share or claim free ones up to it.
+     * Called by the scheduler; errors are logged and the next rebalance starts over.
+     */
+    synchronized void rebalance() {
+        if (closed) {
+            return;
+        }
+        try {
+            renew();
+            int members = countMembers();
+            int share = (partitions + members - 1) / members;
+            int first = memberLease != null ? (int) ((long) memberSlot * partitions / members % partitions) : 0;
+            int owned = releaseAbove(share, first);
+            claimUpTo(share, owned, first);
+        } catch (RuntimeException e) {
+            log.warn("Cannot rebalance partitions of '{}'", name, e);
+        }
+    }
+
+    /**
+     * Stop rebalances and release all leases, so other nodes can claim the partitions at once.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (int partition = 0; partition < partitions; partition++) {
+            release(partition);
+        }
+        if (memberLease != null) {
+            memberLease.close();
+            memberLease = null;
+        }
+    }
+
+    private void renew() {
+        for (int partition = 0; partition < partitions; partition++) {
+            LockHandle handle = partitionLeases[partition];
+            if (handle == null) {
+                continue;
+            }
+            long startNanos = System.nanoTime();
+            if (extend(handle)) {
+                ownedUntilNanos.set(partition, ownedUntil(startNanos));
+            } else {
+                log.warn("Lease of partition {} of '{}' is lost", partition, name);
+                release(partition);
+            }
+        }
+        if (memberLease != null && !extend(memberLease)) {
+            memberLease.close();
+            memberLease = null;
+        }
+    }
+
+    private boolean extend(final LockHandle handle) {
+        try {
+            return handle.extend();
+        } catch (RuntimeException e) {
+            log.warn("Cannot extend lease by key '{}'", handle.getLockKey(), e);
+            return false;
+        }
+    }
+
+    private int countMembers() {
+        if (memberLease == null) {
+            join();
+        } else {
+            probeNextSlot();
+        }
+        int members = memberLease != null ? 1 : 0;
+        for (boolean live : liveSlots) {
+            if (live) {
+                members++;
+            }
+        }
+        return Math.max(1, members);
+    }
+
+    /**
+     * Take the lowest free member slot; slots found held on the way are counted as other nodes.
+     */
+    private void join() {
+        for (int slot = 0; slot < maxMembers; slot++) {
+            Optional<LockHandle> heartbeat = lockManager.tryLock(memberKey(slot), lease);
+            if (heartbeat.isPresent()) {
+                memberLease = heartbeat.get();
+                memberSlot = slot;
+                liveSlots[slot] = false;
+                log.debug("Node takes member slot {} of '{}'", slot, name);
+                return;
+            }
+            liveSlots[slot] = true;
+        }
+        log.warn("All {} member slots of '{}' are held; the node isn't counted", maxMembers, name);
+    }
+
+    /**
+     * Probe the next slot of another node, up to the one above the highest slot known to be held,
+     * since joining nodes take the lowest free slot.
+     */
+    private void probeNextSlot() {
+        int highest = memberSlot;
+        for (int slot = maxMembers - 1; slot > highest; slot--) {
+            if (liveSlots[slot]) {
+                highest = slot;
+            }
+        }
+        int limit = Math.min(maxMembers, highest + 2);
+        int slot = (probedSlot + 1) % limit;
+        if (slot == memberSlot) {
+            slot = (slot + 1) % limit;
+        }
+        if (slot == memberSlot) {
+            return;
+        }
+        probedSlot = slot;
+        Optional<LockHandle> probe = lockManager.tryLock(memberKey(slot), lease);
+        probe.ifPresent(LockHandle::close);
+        liveSlots[slot] = probe.isEmpty();
+    }
+
+    private int releaseAbove(final int share, final int first) {
+        int owned = 0;
+        for (int i = 0; i < partitions; i++) {
+            int partition = (first + i) % partitions;
+            if (partitionLeases[partition] == null) {
+                continue;
+            }
+            if (owned < share) {
+                owned++;
+            } else {
+                log.debug("Partition {} of '{}' is released to rebalance", partition, name);
+                release(partition);
+            }
+        }
+        return owned;
+    }
+
+    private void claimUpTo(final int share, final int owned, final int first) {
+        int claimed = owned;
+        for (int i = 0; i < partitions && claimed < share; i++) {
+            int partition = (first + i) % partitions;
+            if (partitionLeases[partition] != null) {
+                continue;
+            }
+            long startNanos = System.nanoTime();
+            Optional<LockHandle> handle = lockManager.tryLock(partitionKey(partition), lease);
+            if (handle.isPresent()) {
+                partitionLeases[partition] = handle.get();
+                ownedUntilNanos.set(partition, ownedUntil(startNanos));
+                claimed++;
+                log.debug("Partition {} of '{}' is claimed", partition, name);
+            }
+        }
+    }
+
+    private void release(final int partition) {
+        // Ownership is dropped before the lease, so no other node can own the partition meanwhile.
+        ownedUntilNanos.set(partition, 0);
+        LockHandle handle = partitionLeases[partition];
+        partitionLeases[partition] = null;
+        if (handle != null) {
+            handle.close();
+        }
+    }
+
+    private long ownedUntil(final long startNanos) {
+        long leaseNanos = lease.toNanos();
+        long until = startNanos + leaseNanos - leaseNanos / MARGIN_DIVISOR;
+        return until == 0 ? 1 : until;
+    }
+
+    private String partitionKey(final int partition) {
+        return name + ":partition:" + partition;
+    }
+
+    private String memberKey(final int slot) {
+        return name + ":member:" + slot;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock.provider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+/**
+ * Lock provider able to obtain a set of locks at once, e.g. with one batched insert/update of lock records.
+ * Storage based providers implement it on top of {@link BatchStorageAccessor}.
+ */
+public interface BatchLockProvider extends LockProvider {
+
+    /**
+     * Obtain all locks or none of them.
+     *
+     * @param lockConfigurations configurations of locks, in the order they must be obtained
+     * @return locks in the same order if all of them are obtained, otherwise empty.
+     */
+    Optional<List<SimpleLock>> lockAll(List<LockConfiguration> lockConfigurations);
+
+    /**
+     * Obtain each lock independently of the others, e.g. with one multi-record insert/update of lock records.
+     * By default, locks are obtained one by one.
+     *
+     * @param lockConfigurations configurations of locks with distinct names
+     * @return results in the same order: the lock if obtained, otherwise empty.
+     */
+    default List<Optional<SimpleLock>> lockEach(final List<LockConfiguration> lockConfigurations) {
+        List<Optional<SimpleLock>> locks = new ArrayList<>(lockConfigurations.size());
+        for (LockConfiguration lockConfiguration : lockConfigurations) {
+            locks.add(lock(lockConfiguration));
+        }
+        return locks;
+    }
+
+    /**
+     * Obtain each shared lock independently of the others, e.g. with one multi-record insert of lock records.
+     * By default, locks are obtained one by one: shared ones if the provider is a {@link SharedLockProvider},
+     * otherwise exclusive ones.
+     *
+     * @param lockConfigurations configurations of locks
+     * @return results in the same order: the lock if obtained, otherwise empty.
+     */
+    default List<Optional<SimpleLock>> lockEachShared(final List<LockConfiguration> lockConfigurations) {
+        List<Optional<SimpleLock>> locks = new ArrayList<>(lockConfigurations.size());
+        for (LockConfiguration lockConfiguration : lockConfigurations) {
+            locks.add(this instanceof SharedLockProvider sharedLockProvider
+                    ? sharedLockProvider.lockShared(lockConfiguration)
+                    : lock(lockConfiguration));
+        }
+        return locks;
+    }
+
+    /**
+     * Obtain each lock independently of the others if its waiter is the first one in the queue of the lock name,
+     * e.g. with one multi-record insert/update of lock records and queues.
+     * By default, locks are obtained one by one: in turn if the provider is a {@link FairLockProvider},
+     * otherwise out of turn.
+     *
+     * @param lockConfigurations configurations of locks with distinct names
+     * @param waiterIds          unique ids of the waiters, in the same order
+     * @param turnTimeouts       times the waiters keep their places without further attempts, in the same order
+     * @return results in the same order: the lock if obtained, otherwise empty.
+     */
+    default List<Optional<SimpleLock>> lockEachInTurn(final List<LockConfiguration> lockConfigurations,
+                                                      final List<String> waiterIds,
+                                                      final List<Duration> turnTimeouts) {
+        List<Optional<SimpleLock>> locks = new ArrayList<>(lockConfigurations.size());
+        for (int i = 0; i < lockConfigurations.size(); i++) {
+            locks.add(this instanceof FairLockProvider fairLockProvider
+                    ? fairLockProvider.lockInTurn(lockConfigurations.get(i), waiterIds.get(i), turnTimeouts.get(i))
+                    : lock(lockConfigurations.get(i)));
+        }
+        return locks;
+    }
+
+    /**
+     * Obtain all locks one by one, or none of them: locks obtained before a busy one are unlocked.
+     *
+     * @param lockProvider       the lock provider
+     * @param lockConfigurations configurations of locks, in the order they must be obtained
+     * @return locks in the same order if all of them are obtained, otherwise empty.
+     */
+    static Optional<List<SimpleLock>> lockOneByOne(final LockProvider lockProvider,
+                                                   final List<LockConfiguration> lockConfigurations) {
+        List<SimpleLock> locks = new ArrayList<>(lockConfigurations.size());
+        for (LockConfiguration lockConfiguration : lockConfigurations) {
+            Optional<SimpleLock> lock = lockProvider.lock(lockConfiguration);
+            if (lock.isEmpty()) {
+                for (int i = locks.size() - 1; i >= 0; i--) {
+                    locks.get(i).unlock();
+                }
+                return Optional.empty();
+            }
+            locks.add(lock.get());
+        }
+        return Optional.of(locks);
+    }
+}
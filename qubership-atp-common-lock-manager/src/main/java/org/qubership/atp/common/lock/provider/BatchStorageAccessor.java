@@ -0,0 +1,49 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.atp.common.lock.provider;
+
+import java.util.List;
+
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.support.StorageAccessor;
+
+/**
+ * Storage of lock records able to insert a set of records with one call, e.g. one multi-record insert/update
+ * statement of a DB storage. It backs {@link BatchLockProvider} of storage based lock providers,
+ * as {@link InMemoryStorageAccessorAccessor} backs {@link InMemoryLockProvider}.
+ */
+public interface BatchStorageAccessor extends StorageAccessor {
+
+    /**
+     * Insert lock records of all lockConfigurations or none of them.
+     * Records of free locks are inserted, unless the lock of another record is busy; then inserted ones are removed
+     * and unlock listeners, if any, are notified.
+     *
+     * @param lockConfigurations configurations of locks, in the order they must be obtained
+     * @return true if all lock records are inserted; otherwise false.
+     */
+    boolean insertRecords(List<LockConfiguration> lockConfigurations);
+
+    /**
+     * Insert lock record of each lockConfiguration whose lock is free, independently of the others.
+     *
+     * @param lockConfigurations configurations of locks with distinct names
+     * @return flags in the same order: true if the lock record is inserted; otherwise false.
+     */
+    boolean[] insertEachRecord(List<LockConfiguration> lockConfigurations);
+}
@@ -0,0 +1,51 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock.provider;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+/**
+ * Lock provider keeping a queue of waiters per lock name, so that waiters of all nodes obtain the lock
+ * in arrival order. Callers of {@link #lock(LockConfiguration)} aren't queued and may obtain the lock out of turn.
+ */
+public interface FairLockProvider extends LockProvider {
+
+    /**
+     * Obtain the lock if it's free and the waiter is the first one in the queue of the lock name.
+     * Otherwise the waiter is put at the end of the queue, or keeps its place if it's already queued.
+     * The waiter leaves the queue when the lock is obtained.
+     *
+     * @param lockConfiguration configuration of the lock
+     * @param waiterId          unique id of the waiter
+     * @param turnTimeout       time the waiter keeps its place without further attempts
+     * @return the lock if obtained, otherwise empty.
+     */
+    Optional<SimpleLock> lockInTurn(LockConfiguration lockConfiguration, String waiterId, Duration turnTimeout);
+
+    /**
+     * Remove the waiter from the queue of the lock name, e.g. when it stops waiting.
+     *
+     * @param lockName the lock name
+     * @param waiterId unique id of the waiter.
+     */
+    void leaveQueue(String lockName, String waiterId);
+}
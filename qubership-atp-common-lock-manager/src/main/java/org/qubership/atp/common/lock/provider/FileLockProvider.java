@@ -0,0 +1,140 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock.provider;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import net.javacrumbs.shedlock.core.AbstractSimpleLock;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import net.javacrumbs.shedlock.support.StorageBasedLockProvider;
+
+/**
+ * Lock provider coordinating JVMs of the same host through a memory-mapped lock table file,
+ * e.g. several agents of a host which need no database otherwise.
+ * Locks have the same lease semantics as records of other storage based providers: a lock expires
+ * at lockAtMostUntil, and is kept till lockAtLeastUntil after unlock. Locks of a JVM exited without unlock
+ * are kept till they expire. Each acquisition is identified by its own token, so a lock is extended or unlocked
+ * only by the acquisition holding it, not by another thread or JVM whose lease of the name has expired.
+ * Names longer than the record allows are stored as their prefix followed by a hash of the full name.
+ */
+public class FileLockProvider extends StorageBasedLockProvider implements Closeable {
+
+    /**
+     * Default number of buckets of a new lock table file.
+     */
+    public static final int DEFAULT_BUCKETS = 1024;
+
+    /**
+     * Default number of slots (lock records) per bucket of a new lock table file.
+     */
+    public static final int DEFAULT_SLOTS_PER_BUCKET = 16;
+
+    /**
+     * Storage of lock records.
+     */
+    private final FileStorageAccessor storageAccessor;
+
+    /**
+     * Constructor.
+     *
+     * @param path path of the lock table file; created with default size if it doesn't exist.
+     */
+    public FileLockProvider(final Path path) {
+        this(path, DEFAULT_BUCKETS, DEFAULT_SLOTS_PER_BUCKET);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param path           path of the lock table file; created if it doesn't exist
+     * @param buckets        number of buckets of a new file; the size of an existing file is kept
+     * @param slotsPerBucket number of slots (lock records) per bucket of a new file; lock names with the same
+     *                       bucket can't be locked at once beyond that number.
+     */
+    public FileLockProvider(final Path path, final int buckets, final int slotsPerBucket) {
+        this(new FileStorageAccessor(path, buckets, slotsPerBucket));
+    }
+
+    private FileLockProvider(final FileStorageAccessor storageAccessor) {
+        super(storageAccessor);
+        this.storageAccessor = storageAccessor;
+    }
+
+    /**
+     * Obtain the lock if it's free.
+     *
+     * @param lockConfiguration configuration of the lock
+     * @return the lock if obtained, otherwise empty.
+     */
+    @Override
+    public Optional<SimpleLock> lock(final LockConfiguration lockConfiguration) {
+        long token = storageAccessor.lock(lockConfiguration);
+        return token != 0 ? Optional.of(new FileLock(lockConfiguration, token, storageAccessor)) : Optional.empty();
+    }
+
+    /**
+     * Get number of locks held by all JVMs using the file.
+     *
+     * @return number of lock records not expired yet.
+     */
+    public int getRecordCount() {
+        return storageAccessor.getRecordCount();
+    }
+
+    /**
+     * Release the lock table file. Locks of this JVM still held are kept till they expire.
+     */
+    @Override
+    public void close() {
+        storageAccessor.close();
+    }
+
+    private static final class FileLock extends AbstractSimpleLock {
+
+        /**
+         * Token of the acquisition.
+         */
+        private final long token;
+
+        /**
+         * Storage of lock records.
+         */
+        private final FileStorageAccessor storageAccessor;
+
+        private FileLock(final LockConfiguration lockConfiguration, final long token,
+                         final FileStorageAccessor storageAccessor) {
+            super(lockConfiguration);
+            this.token = token;
+            this.storageAccessor = storageAccessor;
+        }
+
+        @Override
+        protected void doUnlock() {
+            storageAccessor.unlock(lockConfiguration, token);
+        }
+
+        @Override
+        protected Optional<SimpleLock> doExtend(final LockConfiguration newConfiguration) {
+            return storageAccessor.extend(newConfiguration, token)
+                    ? Optional.of(new FileLock(newConfiguration, token, storageAccessor))
+                    : Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,545 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock.provider;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+
+import com.google.common.hash.Hashing;
+
+import net.javacrumbs.shedlock.core.ClockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.support.AbstractStorageAccessor;
+import net.javacrumbs.shedlock.support.LockException;
+
+/**
+ * Storage of lock records in a memory-mapped file shared by JVMs of the same host.
+ * The file is a table of fixed-size slots grouped in buckets; a lock name is stored in the bucket of its hash.
+ * Each operation locks the bucket: by a local lock against threads of this JVM, then by a region lock
+ * of the file against other JVMs, and reads or writes the mapped slots in between.
+ * Records of expired locks are reused for other names, so the table needs no eviction.
+ * Each record keeps the token of the acquisition holding it, so only that acquisition can extend or unlock it,
+ * not another thread or JVM which held the name before its lease expired. Locks are obtained with tokens by
+ * {@link FileLockProvider}; records of the StorageAccessor SPI, which has no token, aren't supported.
+ */
+class FileStorageAccessor extends AbstractStorageAccessor implements Closeable {
+
+    /**
+     * Marker of an initialized lock table file.
+     */
+    private static final int MAGIC = 0x41544c4b;
+
+    /**
+     * Size of the file header: magic, number of buckets and number of slots per bucket.
+     */
+    private static final int HEADER_SIZE = 64;
+
+    /**
+     * Size of a slot (record) of the lock table.
+     */
+    private static final int SLOT_SIZE = 256;
+
+    /**
+     * Offset of lock until time (epoch milliseconds) in a slot; 0 means free.
+     */
+    private static final int LOCK_UNTIL_OFFSET = 0;
+
+    /**
+     * Offset of locked at time (epoch milliseconds) in a slot.
+     */
+    private static final int LOCKED_AT_OFFSET = 8;
+
+    /**
+     * Offset of the token of the acquisition holding the lock in a slot.
+     */
+    private static final int TOKEN_OFFSET = 16;
+
+    /**
+     * Offset of the name length in a slot; 0 means the slot was never used.
+     */
+    private static final int NAME_LENGTH_OFFSET = 24;
+
+    /**
+     * Offset of the name (UTF-8) in a slot.
+     */
+    private static final int NAME_OFFSET = 26;
+
+    /**
+     * Max size of the name (UTF-8 bytes); longer names are stored compacted.
+     */
+    static final int MAX_NAME_SIZE = SLOT_SIZE - NAME_OFFSET;
+
+    /**
+     * Size of the hash of the full name in compacted names: 64 bits in hex.
+     */
+    private static final int NAME_HASH_SIZE = 16;
+
+    /**
+     * Separator of the prefix and the hash in compacted names.
+     */
+    private static final byte NAME_HASH_SEPARATOR = '~';
+
+    /**
+     * Lock tables opened by this JVM by file path; region locks of a file can't be obtained twice by one JVM,
+     * so all accessors of the same file share the table.
+     */
+    private static final Map<Path, LockTable> TABLES = new ConcurrentHashMap<>();
+
+    /**
+     * Token of the last acquisition of this JVM; starts at random, so tokens of different JVMs don't meet.
+     */
+    private static final AtomicLong TOKENS = new AtomicLong(new SecureRandom().nextLong());
+
+    /**
+     * Lock table of the file.
+     */
+    private final LockTable table;
+
+    /**
+     * Accessor is closed (true) or not; guarded by TABLES entry of the path.
+     */
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param path           path of the lock table file; created if it doesn't exist
+     * @param buckets        number of buckets of a new file
+     * @param slotsPerBucket number of slots per bucket of a new file.
+     */
+    FileStorageAccessor(final Path path, final int buckets, final int slotsPerBucket) {
+        this.table = TABLES.compute(path.toAbsolutePath().normalize(), (tablePath, current) -> {
+            LockTable result = current == null ? new LockTable(tablePath, buckets, slotsPerBucket) : current;
+            result.references++;
+            return result;
+        });
+    }
+
+    /**
+     * Not supported: the record would have no token to unlock it with.
+     *
+     * @param lockConfiguration LockConfiguration object
+     * @return never returns.
+     */
+    @Override
+    public boolean insertRecord(final LockConfiguration lockConfiguration) {
+        throw new UnsupportedOperationException("Locks of lock table " + table.path + " are obtained with tokens");
+    }
+
+    /**
+     * Not supported: the record would have no token to unlock it with.
+     *
+     * @param lockConfiguration LockConfiguration object
+     * @return never returns.
+     */
+    @Override
+    public boolean updateRecord(final LockConfiguration lockConfiguration) {
+        throw new UnsupportedOperationException("Locks of lock table " + table.path + " are obtained with tokens");
+    }
+
+    /**
+     * Not supported: the holder can't be told without its token.
+     *
+     * @param lockConfiguration LockConfiguration object
+     */
+    @Override
+    public void unlock(final LockConfiguration lockConfiguration) {
+        throw new UnsupportedOperationException("Locks of lock table " + table.path + " are unlocked with tokens");
+    }
+
+    /**
+     * Insert lock record by the name of lockConfiguration, only if there is no lock with that name
+     * or lock is already expired.
+     *
+     * @param lockConfiguration LockConfiguration object
+     * @return token of the acquisition if lock record is inserted; otherwise 0.
+     */
+    long lock(final LockConfiguration lockConfiguration) {
+        byte[] name = toBytes(lockConfiguration.getName());
+        long token = nextToken();
+        boolean locked = table.inBucket(name, base -> {
+            long now = ClockProvider.now().toEpochMilli();
+            int slot = table.find(base, name, true, now);
+            if (slot < 0) {
+                logger.warn("Lock table {} has no free record for lock '{}'", table.path,
+                        lockConfiguration.getName());
+                return false;
+            }
+            if (table.buffer.getLong(slot + LOCK_UNTIL_OFFSET) > now) {
+                return false;
+            }
+            table.buffer.putShort(slot + NAME_LENGTH_OFFSET, (short) name.length);
+            table.buffer.put(slot + NAME_OFFSET, name);
+            table.buffer.putLong(slot + LOCKED_AT_OFFSET, now);
+            table.buffer.putLong(slot + TOKEN_OFFSET, token);
+            table.buffer.putLong(slot + LOCK_UNTIL_OFFSET, lockConfiguration.getLockAtMostUntil().toEpochMilli());
+            return true;
+        });
+        return locked ? token : 0;
+    }
+
+    /**
+     * Unlock by the name of lockConfiguration.
+     * Record is released only if it is still the record of the acquisition given,
+     * i.e. the lock isn't expired and then obtained by another caller.
+     * If the lock must be held at least for some time more, the record is kept until then instead.
+     *
+     * @param lockConfiguration LockConfiguration the lock is held with
+     * @param token             token of the acquisition.
+     */
+    void unlock(final LockConfiguration lockConfiguration, final long token) {
+        byte[] name = toBytes(lockConfiguration.getName());
+        table.inBucket(name, base -> {
+            int slot = table.find(base, name, false, 0);
+            if (slot < 0 || table.buffer.getLong(slot + TOKEN_OFFSET) != token) {
+                return false;
+            }
+            Instant now = ClockProvider.now();
+            Instant lockAtLeastUntil = lockConfiguration.getLockAtLeastUntil();
+            table.buffer.putLong(slot + LOCK_UNTIL_OFFSET,
+                    lockAtLeastUntil.isAfter(now) ? lockAtLeastUntil.toEpochMilli() : 0);
+            return true;
+        });
+    }
+
+    /**
+     * Extend lock according to lockConfiguration properties.
+     * Lock is extended only if it is still held by the acquisition given and isn't expired yet.
+     *
+     * @param lockConfiguration new LockConfiguration object
+     * @param token             token of the acquisition
+     * @return true if lock is extended; otherwise false.
+     */
+    boolean extend(final LockConfiguration lockConfiguration, final long token) {
+        byte[] name = toBytes(lockConfiguration.getName());
+        return table.inBucket(name, base -> {
+            long now = ClockProvider.now().toEpochMilli();
+            int slot = table.find(base, name, false, now);
+            if (slot < 0 || table.buffer.getLong(slot + TOKEN_OFFSET) != token
+                    || table.buffer.getLong(slot + LOCK_UNTIL_OFFSET) <= now) {
+                return false;
+            }
+            table.buffer.putLong(slot + LOCK_UNTIL_OFFSET, lockConfiguration.getLockAtMostUntil().toEpochMilli());
+            return true;
+        });
+    }
+
+    /**
+     * Get number of lock records not expired yet.
+     *
+     * @return number of lock records.
+     */
+    int getRecordCount() {
+        return table.countLocked(ClockProvider.now().toEpochMilli());
+    }
+
+    /**
+     * Release the lock table file, unless it's used by other accessors of this JVM. Repeated calls have no effect.
+     */
+    @Override
+    public void close() {
+        TABLES.computeIfPresent(table.path, (tablePath, current) -> {
+            if (closed) {
+                return current;
+            }
+            closed = true;
+            if (--current.references > 0) {
+                return current;
+            }
+            current.close();
+            return null;
+        });
+    }
+
+    private static long nextToken() {
+        long token = TOKENS.incrementAndGet();
+        return token != 0 ? token : TOKENS.incrementAndGet();
+    }
+
+    /**
+     * Get the name stored in the table: UTF-8 bytes of the name, or, if they don't fit the slot,
+     * their first bytes followed by '~' and a 64-bit hash of all of them in hex.
+     *
+     * @param name the lock name
+     * @return bytes of the name to store.
+     */
+    static byte[] toBytes(final String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("Lock name must not be empty");
+        }
+        if (bytes.length <= MAX_NAME_SIZE) {
+            return bytes;
+        }
+        byte[] hash = String.format("%016x", Hashing.murmur3_128().hashBytes(bytes).asLong())
+                .getBytes(StandardCharsets.US_ASCII);
+        byte[] compacted = Arrays.copyOf(bytes, MAX_NAME_SIZE);
+        int prefixSize = MAX_NAME_SIZE - NAME_HASH_SIZE - 1;
+        compacted[prefixSize] = NAME_HASH_SEPARATOR;
+        System.arraycopy(hash, 0, compacted, prefixSize + 1, NAME_HASH_SIZE);
+        return compacted;
+    }
+
+    /**
+     * Memory-mapped lock table file shared by accessors of this JVM.
+     */
+    private static final class LockTable {
+
+        /**
+         * Path of the file.
+         */
+        private final Path path;
+
+        /**
+         * Number of buckets.
+         */
+        private final int buckets;
+
+        /**
+         * Number of slots per bucket.
+         */
+        private final int slotsPerBucket;
+
+        /**
+         * Local locks of buckets, against threads of this JVM.
+         */
+        private final ReentrantLock[] bucketLocks;
+
+        /**
+         * Mapped content of the file.
+         */
+        private final MappedByteBuffer buffer;
+
+        /**
+         * Channel of region locks; reopened if closed by interruption of a thread waiting for a region lock.
+         */
+        private volatile FileChannel channel;
+
+        /**
+         * Number of accessors using the table; guarded by TABLES entry of the path.
+         */
+        private int references;
+
+        /**
+         * Table is closed (true) or not; guarded by this.
+         */
+        private boolean closed;
+
+        private LockTable(final Path path, final int newBuckets, final int newSlotsPerBucket) {
+            this.path = path;
+            try {
+                channel = open(path);
+                int[] geometry = readOrInitHeader(newBuckets, newSlotsPerBucket);
+                this.buckets = geometry[0];
+                this.slotsPerBucket = geometry[1];
+                this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                        HEADER_SIZE + (long) buckets * slotsPerBucket * SLOT_SIZE);
+            } catch (IOException e) {
+                closeQuietly();
+                throw new LockException("Cannot open lock table " + path, e);
+            }
+            this.bucketLocks = new ReentrantLock[buckets];
+            Arrays.setAll(bucketLocks, bucket -> new ReentrantLock());
+        }
+
+        private int[] readOrInitHeader(final int newBuckets, final int newSlotsPerBucket) throws IOException {
+            try (FileLock headerLock = channel.lock(0, HEADER_SIZE, false)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                if (channel.size() >= HEADER_SIZE) {
+                    channel.read(header, 0);
+                    if (header.getInt(0) == MAGIC) {
+                        return new int[] {header.getInt(4), header.getInt(8)};
+                    }
+                }
+                if (newBuckets <= 0 || newSlotsPerBucket <= 0) {
+                    throw new IllegalArgumentException("Number of buckets and slots per bucket must be positive");
+                }
+                long size = HEADER_SIZE + (long) newBuckets * newSlotsPerBucket * SLOT_SIZE;
+                if (size > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Lock table of " + newBuckets + " buckets by "
+                            + newSlotsPerBucket + " slots is too large");
+                }
+                channel.write(ByteBuffer.allocate(1), size - 1);
+                header.clear();
+                header.putInt(0, MAGIC).putInt(4, newBuckets).putInt(8, newSlotsPerBucket);
+                channel.write(header, 0);
+                channel.force(true);
+                return new int[] {newBuckets, newSlotsPerBucket};
+            }
+        }
+
+        /**
+         * Run the operation with the bucket of the name locked against other threads and JVMs.
+         *
+         * @param name      the lock name
+         * @param operation operation given the offset of the bucket
+         * @return result of the operation.
+         */
+        private boolean inBucket(final byte[] name, final IntPredicate operation) {
+            int bucket = Math.floorMod(Arrays.hashCode(name), buckets);
+            long base = HEADER_SIZE + (long) bucket * slotsPerBucket * SLOT_SIZE;
+            ReentrantLock bucketLock = bucketLocks[bucket];
+            bucketLock.lock();
+            try {
+                FileLock regionLock = lockRegion(base, (long) slotsPerBucket * SLOT_SIZE);
+                try {
+                    return operation.test((int) base);
+                } finally {
+                    release(regionLock);
+                }
+            } catch (IOException e) {
+                throw new LockException("Cannot lock region of lock table " + path, e);
+            } finally {
+                bucketLock.unlock();
+            }
+        }
+
+        /**
+         * Obtain the region lock, waiting for other JVMs if needed.
+         * Interruption of the waiting thread closes the channel, which is then reopened, and the wait is resumed;
+         * the interrupt status is restored afterwards.
+         *
+         * @param position start of the region
+         * @param size     size of the region
+         * @return the region lock.
+         * @throws IOException in case the lock table is closed or the region can't be locked.
+         */
+        private FileLock lockRegion(final long position, final long size) throws IOException {
+            boolean interrupted = Thread.interrupted();
+            try {
+                while (true) {
+                    FileChannel current = channel;
+                    try {
+                        return current.lock(position, size, false);
+                    } catch (ClosedByInterruptException e) {
+                        interrupted |= Thread.interrupted();
+                        reopen(current);
+                    } catch (ClosedChannelException e) {
+                        reopen(current);
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private synchronized void reopen(final FileChannel closedChannel) throws IOException {
+            if (closed) {
+                throw new ClosedChannelException();
+            }
+            if (channel == closedChannel && !closedChannel.isOpen()) {
+                channel = open(path);
+            }
+        }
+
+        private static void release(final FileLock regionLock) throws IOException {
+            try {
+                regionLock.release();
+            } catch (ClosedChannelException e) {
+                // the region lock is released with the channel
+            }
+        }
+
+        /**
+         * Find the slot of the name in the bucket.
+         *
+         * @param base  offset of the bucket
+         * @param name  the lock name
+         * @param claim return a free slot if the name isn't found (true) or not
+         * @param now   current time (epoch milliseconds); slots of expired locks are free
+         * @return offset of the slot found; -1 if there is none.
+         */
+        private int find(final int base, final byte[] name, final boolean claim, final long now) {
+            int free = -1;
+            for (int i = 0; i < slotsPerBucket; i++) {
+                int slot = base + i * SLOT_SIZE;
+                short nameLength = buffer.getShort(slot + NAME_LENGTH_OFFSET);
+                if (nameLength == name.length && hasName(slot, name)) {
+                    return slot;
+                }
+                if (free < 0 && (nameLength == 0 || buffer.getLong(slot + LOCK_UNTIL_OFFSET) <= now)) {
+                    free = slot;
+                }
+                if (nameLength == 0) {
+                    break;
+                }
+            }
+            return claim ? free : -1;
+        }
+
+        private boolean hasName(final int slot, final byte[] name) {
+            for (int i = 0; i < name.length; i++) {
+                if (buffer.get(slot + NAME_OFFSET + i) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int countLocked(final long now) {
+            int count = 0;
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                int base = HEADER_SIZE + bucket * slotsPerBucket * SLOT_SIZE;
+                for (int i = 0; i < slotsPerBucket; i++) {
+                    if (buffer.getLong(base + i * SLOT_SIZE + LOCK_UNTIL_OFFSET) > now) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        private synchronized void close() {
+            closed = true;
+            closeQuietly();
+        }
+
+        private void closeQuietly() {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                // nothing to do: the file is released by the process exit anyway
+            }
+        }
+
+        private static FileChannel open(final Path path) throws IOException {
+            return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+    }
+}
@@ -16,14 +16,278 @@
 
 package org.qubership.atp.common.lock.provider;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import net.javacrumbs.shedlock.core.AbstractSimpleLock;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
 import net.javacrumbs.shedlock.support.StorageBasedLockProvider;
 
-public class InMemoryLockProvider extends StorageBasedLockProvider {
+public class InMemoryLockProvider extends StorageBasedLockProvider implements BatchLockProvider, SharedLockProvider,
+        FairLockProvider {
+
+    /**
+     * Storage of lock records.
+     */
+    private final InMemoryStorageAccessorAccessor storageAccessor;
 
     /**
      * Constructor.
      */
     public InMemoryLockProvider() {
-        super(new InMemoryStorageAccessorAccessor());
+        this(new InMemoryStorageAccessorAccessor());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param evictionInterval min interval between evictions of expired lock records.
+     */
+    public InMemoryLockProvider(final Duration evictionInterval) {
+        this(new InMemoryStorageAccessorAccessor(evictionInterval));
+    }
+
+    private InMemoryLockProvider(final InMemoryStorageAccessorAccessor storageAccessor) {
+        super(storageAccessor);
+        this.storageAccessor = storageAccessor;
+    }
+
+    /**
+     * Add listener to be notified with the lock name after each unlock.
+     *
+     * @param listener Consumer of lock name.
+     */
+    public void addUnlockListener(final Consumer<String> listener) {
+        storageAccessor.addUnlockListener(listener);
+    }
+
+    /**
+     * Obtain the lock if it's free.
+     * Unlike the lock of StorageBasedLockProvider, the lock obtained is extended only while its record is still
+     * the one inserted by this call.
+     *
+     * @param lockConfiguration configuration of the lock
+     * @return the lock if obtained, otherwise empty.
+     */
+    @Override
+    public Optional<SimpleLock> lock(final LockConfiguration lockConfiguration) {
+        return storageAccessor.insertRecord(lockConfiguration)
+                ? Optional.of(new InMemoryLock(lockConfiguration, storageAccessor))
+                : Optional.empty();
+    }
+
+    /**
+     * Obtain all locks or none of them with one call of the storage.
+     * Records inserted before a busy one are removed and unlock listeners are notified.
+     *
+     * @param lockConfigurations configurations of locks, in the order they must be obtained
+     * @return locks in the same order if all of them are obtained, otherwise empty.
+     */
+    @Override
+    public Optional<List<SimpleLock>> lockAll(final List<LockConfiguration> lockConfigurations) {
+        if (!storageAccessor.insertRecords(lockConfigurations)) {
+            return Optional.empty();
+        }
+        List<SimpleLock> locks = new ArrayList<>(lockConfigurations.size());
+        for (LockConfiguration lockConfiguration : lockConfigurations) {
+            locks.add(new InMemoryLock(lockConfiguration, storageAccessor));
+        }
+        return Optional.of(locks);
+    }
+
+    /**
+     * Obtain each lock independently of the others in one step of the storage.
+     *
+     * @param lockConfigurations configurations of locks with distinct names
+     * @return results in the same order: the lock if obtained, otherwise empty.
+     */
+    @Override
+    public List<Optional<SimpleLock>> lockEach(final List<LockConfiguration> lockConfigurations) {
+        return toLocks(lockConfigurations, storageAccessor.insertEachRecord(lockConfigurations), false);
+    }
+
+    /**
+     * Obtain each shared lock independently of the others in one step of the storage.
+     *
+     * @param lockConfigurations configurations of locks
+     * @return results in the same order: the lock if obtained, otherwise empty.
+     */
+    @Override
+    public List<Optional<SimpleLock>> lockEachShared(final List<LockConfiguration> lockConfigurations) {
+        return toLocks(lockConfigurations, storageAccessor.insertEachSharedRecord(lockConfigurations), true);
+    }
+
+    /**
+     * Obtain each lock independently of the others, if its waiter is the first one in the queue of the lock name,
+     * in one step of the storage.
+     *
+     * @param lockConfigurations configurations of locks with distinct names
+     * @param waiterIds          unique ids of the waiters, in the same order
+     * @param turnTimeouts       times the waiters keep their places without further attempts, in the same order
+     * @return results in the same order: the lock if obtained, otherwise empty.
+     */
+    @Override
+    public List<Optional<SimpleLock>> lockEachInTurn(final List<LockConfiguration> lockConfigurations,
+                                                     final List<String> waiterIds,
+                                                     final List<Duration> turnTimeouts) {
+        return toLocks(lockConfigurations,
+                storageAccessor.insertEachRecordInTurn(lockConfigurations, waiterIds, turnTimeouts), false);
+    }
+
+    /**
+     * Obtain the lock if it's free and the waiter is the first one in the queue of the lock name.
+     *
+     * @param lockConfiguration configuration of the lock
+     * @param waiterId          unique id of the waiter
+     * @param turnTimeout       time the waiter keeps its place without further attempts
+     * @return the lock if obtained, otherwise empty.
+     */
+    @Override
+    public Optional<SimpleLock> lockInTurn(final LockConfiguration lockConfiguration, final String waiterId,
+                                           final Duration turnTimeout) {
+        return storageAccessor.insertRecordInTurn(lockConfiguration, waiterId, turnTimeout)
+                ? Optional.of(new InMemoryLock(lockConfiguration, storageAccessor))
+                : Optional.empty();
+    }
+
+    /**
+     * Remove the waiter from the queue of the lock name.
+     *
+     * @param lockName the lock name
+     * @param waiterId unique id of the waiter.
+     */
+    @Override
+    public void leaveQueue(final String lockName, final String waiterId) {
+        storageAccessor.leaveQueue(lockName, waiterId);
+    }
+
+    /**
+     * Obtain shared lock, unless there is an exclusive lock with the same name.
+     *
+     * @param lockConfiguration configuration of the lock
+     * @return the lock if obtained, otherwise empty.
+     */
+    @Override
+    public Optional<SimpleLock> lockShared(final LockConfiguration lockConfiguration) {
+        return storageAccessor.insertSharedRecord(lockConfiguration)
+                ? Optional.of(new InMemorySharedLock(lockConfiguration, storageAccessor))
+                : Optional.empty();
+    }
+
+    /**
+     * Remove records of expired locks.
+     *
+     * @return number of records removed.
+     */
+    public int evictExpired() {
+        return storageAccessor.evictExpired();
+    }
+
+    /**
+     * Get number of lock records, including expired ones not evicted yet.
+     *
+     * @return number of lock records.
+     */
+    public int getRecordCount() {
+        return storageAccessor.getRecordCount();
+    }
+
+    /**
+     * Get exclusive lock records not expired yet.
+     *
+     * @return copy of exclusive lock records.
+     */
+    public List<LockConfiguration> getRecords() {
+        return storageAccessor.getRecords();
+    }
+
+    /**
+     * Get shared lock records not expired yet.
+     *
+     * @return copy of shared lock records.
+     */
+    public List<LockConfiguration> getSharedRecords() {
+        return storageAccessor.getSharedRecords();
+    }
+
+    /**
+     * Remove exclusive and shared lock records by the name, whoever holds them, and notify unlock listeners.
+     *
+     * @param lockName the lock name
+     * @return number of records removed.
+     */
+    public int forceUnlock(final String lockName) {
+        return storageAccessor.forceUnlock(lockName);
+    }
+
+    private List<Optional<SimpleLock>> toLocks(final List<LockConfiguration> lockConfigurations,
+                                               final boolean[] inserted, final boolean shared) {
+        List<Optional<SimpleLock>> locks = new ArrayList<>(lockConfigurations.size());
+        for (int i = 0; i < inserted.length; i++) {
+            if (!inserted[i]) {
+                locks.add(Optional.empty());
+            } else if (shared) {
+                locks.add(Optional.of(new InMemorySharedLock(lockConfigurations.get(i), storageAccessor)));
+            } else {
+                locks.add(Optional.of(new InMemoryLock(lockConfigurations.get(i), storageAccessor)));
+            }
+        }
+        return locks;
+    }
+
+    private static final class InMemoryLock extends AbstractSimpleLock {
+
+        /**
+         * Storage of lock records.
+         */
+        private final InMemoryStorageAccessorAccessor storageAccessor;
+
+        private InMemoryLock(final LockConfiguration lockConfiguration,
+                             final InMemoryStorageAccessorAccessor storageAccessor) {
+            super(lockConfiguration);
+            this.storageAccessor = storageAccessor;
+        }
+
+        @Override
+        protected void doUnlock() {
+            storageAccessor.unlock(lockConfiguration);
+        }
+
+        @Override
+        protected Optional<SimpleLock> doExtend(final LockConfiguration newConfiguration) {
+            return storageAccessor.extend(lockConfiguration, newConfiguration)
+                    ? Optional.of(new InMemoryLock(newConfiguration, storageAccessor))
+                    : Optional.empty();
+        }
+    }
+
+    private static final class InMemorySharedLock extends AbstractSimpleLock {
+
+        /**
+         * Storage of lock records.
+         */
+        private final InMemoryStorageAccessorAccessor storageAccessor;
+
+        private InMemorySharedLock(final LockConfiguration lockConfiguration,
+                                   final InMemoryStorageAccessorAccessor storageAccessor) {
+            super(lockConfiguration);
+            this.storageAccessor = storageAccessor;
+        }
+
+        @Override
+        protected void doUnlock() {
+            storageAccessor.unlockShared(lockConfiguration);
+        }
+
+        @Override
+        protected Optional<SimpleLock> doExtend(final LockConfiguration newConfiguration) {
+            return storageAccessor.extendShared(lockConfiguration, newConfiguration)
+                    ? Optional.of(new InMemorySharedLock(newConfiguration, storageAccessor))
+                    : Optional.empty();
+        }
     }
 }
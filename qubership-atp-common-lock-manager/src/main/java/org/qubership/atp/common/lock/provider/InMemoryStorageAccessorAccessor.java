@@ -16,29 +16,98 @@
 
 package org.qubership.atp.common.lock.provider;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+import net.javacrumbs.shedlock.core.ClockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.support.AbstractStorageAccessor;
 
-public class InMemoryStorageAccessorAccessor extends AbstractStorageAccessor {
+public class InMemoryStorageAccessorAccessor extends AbstractStorageAccessor implements BatchStorageAccessor {
+
+    /**
+     * Default interval between evictions of expired records.
+     */
+    public static final Duration DEFAULT_EVICTION_INTERVAL = Duration.ofMinutes(1);
 
     /**
      * Map of LockConfiguration by configuration name.
      */
     private final Map<String, LockConfiguration> storage = new ConcurrentHashMap<>();
 
+    /**
+     * Map of shared LockConfigurations by configuration name.
+     * Sets are changed only inside compute of the name, always after compute of the exclusive record if any.
+     */
+    private final Map<String, Set<LockConfiguration>> sharedStorage = new ConcurrentHashMap<>();
+
+    /**
+     * Queues of fair waiters by lock name: expiration time of each waiter's place, by waiter id in arrival order.
+     * Queues are changed only inside compute of the name, always after compute of the exclusive record if any.
+     */
+    private final Map<String, LinkedHashMap<String, Instant>> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Min interval between evictions of expired records (milliseconds).
+     */
+    private final long evictionIntervalMillis;
+
+    /**
+     * Time of the last eviction of expired records (milliseconds).
+     */
+    private final AtomicLong lastEvictionMillis = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Listeners notified with the lock name after each unlock.
+     */
+    private final List<Consumer<String>> unlockListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor.
+     */
+    public InMemoryStorageAccessorAccessor() {
+        this(DEFAULT_EVICTION_INTERVAL);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param evictionInterval min interval between evictions of expired records,
+     *                         which are performed by lock acquisitions in passing.
+     */
+    public InMemoryStorageAccessorAccessor(final Duration evictionInterval) {
+        this.evictionIntervalMillis = evictionInterval.toMillis();
+    }
+
+    /**
+     * Add listener to be notified with the lock name after each unlock.
+     *
+     * @param listener Consumer of lock name.
+     */
+    public void addUnlockListener(final Consumer<String> listener) {
+        unlockListeners.add(listener);
+    }
+
     /**
      * Insert lock record by the name of lockConfiguration.
+     * Record is inserted only if there is no lock with that name or lock is already expired.
      *
      * @param lockConfiguration LockConfiguration object
-     * @return always returns true.
+     * @return true if lock record is inserted; otherwise false.
      */
     @Override
     public boolean insertRecord(final LockConfiguration lockConfiguration) {
-        storage.put(lockConfiguration.getName(), lockConfiguration);
-        return true;
+        return tryLock(lockConfiguration);
     }
 
     /**
@@ -52,33 +121,384 @@ public class InMemoryStorageAccessorAccessor extends AbstractStorageAccessor {
      */
     @Override
     public boolean updateRecord(final LockConfiguration lockConfiguration) {
-        LockConfiguration currentConfig = storage.get(lockConfiguration.getName());
-        if (currentConfig == null
-                || currentConfig.getLockAtMostUntil().isBefore(lockConfiguration.getLockAtMostUntil())) {
-            storage.put(lockConfiguration.getName(), lockConfiguration);
-            return true;
-        }
-        return false;
+        return tryLock(lockConfiguration);
     }
 
     /**
-     * Unlock by the name of lockConfiguration.
+     * Unlock by the name of lockConfiguration and notify unlock listeners.
+     * Record is removed only if it is still the record of lockConfiguration given,
+     * i.e. the lock isn't expired and then obtained by another caller.
+     * If the lock must be held at least for some time more, the record is kept until then instead.
      *
      * @param lockConfiguration LockConfiguration object
      */
     @Override
     public void unlock(final LockConfiguration lockConfiguration) {
-        storage.remove(lockConfiguration.getName());
+        Instant now = ClockProvider.now();
+        Instant lockAtLeastUntil = lockConfiguration.getLockAtLeastUntil();
+        if (lockAtLeastUntil.isAfter(now)) {
+            storage.replace(lockConfiguration.getName(), lockConfiguration, new LockConfiguration(
+                    lockConfiguration.getName(), Duration.between(now, lockAtLeastUntil), Duration.ZERO));
+            return;
+        }
+        if (storage.remove(lockConfiguration.getName(), lockConfiguration)) {
+            unlockListeners.forEach(listener -> listener.accept(lockConfiguration.getName()));
+        }
     }
 
     /**
-     * Extend lock according to lockConfiguration properties.
+     * Extend lock: its record is replaced with lockConfiguration given.
+     * Lock is extended only if its record is still the record of previousConfiguration and isn't expired yet,
+     * so a holder whose lock has expired and then been obtained by another caller can't take it back.
+     * Extension by lockConfiguration only ({@link #extend(LockConfiguration)}) isn't supported,
+     * since the holder can't be told by the name.
+     *
+     * @param previousConfiguration LockConfiguration the lock is held with
+     * @param lockConfiguration     new LockConfiguration object
+     * @return true if lock is extended; otherwise false.
+     */
+    public boolean extend(final LockConfiguration previousConfiguration, final LockConfiguration lockConfiguration) {
+        Instant now = ClockProvider.now();
+        return storage.computeIfPresent(lockConfiguration.getName(),
+                (name, current) -> current == previousConfiguration && !isExpired(current, now)
+                        ? lockConfiguration : current)
+                == lockConfiguration;
+    }
+
+    /**
+     * Insert lock record by the name of lockConfiguration if the waiter is the first one in the queue of the name.
+     * Otherwise the waiter is put at the end of the queue, or keeps its place there till turnTimeout from now.
      *
      * @param lockConfiguration LockConfiguration object
-     * @return Always false; it means lock isn't extended.
+     * @param waiterId          unique id of the waiter
+     * @param turnTimeout       time the waiter keeps its place without further attempts
+     * @return true if lock record is inserted; otherwise false.
+     */
+    public boolean insertRecordInTurn(final LockConfiguration lockConfiguration, final String waiterId,
+                                      final Duration turnTimeout) {
+        Instant now = ClockProvider.now();
+        boolean locked = storage.compute(lockConfiguration.getName(), (name, current) -> {
+            boolean free = (current == null || isExpired(current, now)) && !isSharedLocked(name, now);
+            return takeTurn(name, waiterId, now, now.plus(turnTimeout), free) ? lockConfiguration : current;
+        }) == lockConfiguration;
+        evictExpiredIfDue();
+        return locked;
+    }
+
+    /**
+     * Remove the waiter from the queue of the name.
+     * If the waiter was the first one, unlock listeners are notified, so that the next one can make attempts.
+     *
+     * @param name     the lock name
+     * @param waiterId unique id of the waiter.
+     */
+    public void leaveQueue(final String name, final String waiterId) {
+        boolean[] firstLeft = new boolean[1];
+        queues.computeIfPresent(name, (queueName, queue) -> {
+            firstLeft[0] = waiterId.equals(queue.keySet().iterator().next()) && queue.size() > 1;
+            queue.remove(waiterId);
+            return queue.isEmpty() ? null : queue;
+        });
+        if (firstLeft[0]) {
+            unlockListeners.forEach(listener -> listener.accept(name));
+        }
+    }
+
+    /**
+     * Insert shared lock record by the name of lockConfiguration.
+     * Record is inserted only if there is no exclusive lock with that name or it is already expired;
+     * any number of shared records with the same name can be held at once.
+     *
+     * @param lockConfiguration LockConfiguration object
+     * @return true if shared lock record is inserted; otherwise false.
+     */
+    public boolean insertSharedRecord(final LockConfiguration lockConfiguration) {
+        Instant now = ClockProvider.now();
+        boolean[] locked = new boolean[1];
+        storage.compute(lockConfiguration.getName(), (name, current) -> {
+            if (current != null && !isExpired(current, now)) {
+                return current;
+            }
+            sharedStorage.compute(name, (sharedName, shared) -> {
+                Set<LockConfiguration> records = shared == null ? new HashSet<>() : shared;
+                records.add(lockConfiguration);
+                return records;
+            });
+            locked[0] = true;
+            return null;
+        });
+        evictExpiredIfDue();
+        return locked[0];
+    }
+
+    /**
+     * Unlock shared lock by the name of lockConfiguration.
+     * Unlock listeners are notified when the last shared record with that name is removed.
+     * If the lock must be held at least for some time more, the record is kept until then instead.
+     *
+     * @param lockConfiguration LockConfiguration object
+     */
+    public void unlockShared(final LockConfiguration lockConfiguration) {
+        Instant now = ClockProvider.now();
+        Instant lockAtLeastUntil = lockConfiguration.getLockAtLeastUntil();
+        boolean[] lastRemoved = new boolean[1];
+        sharedStorage.computeIfPresent(lockConfiguration.getName(), (name, shared) -> {
+            if (!shared.remove(lockConfiguration)) {
+                return shared;
+            }
+            if (lockAtLeastUntil.isAfter(now)) {
+                shared.add(new LockConfiguration(name, Duration.between(now, lockAtLeastUntil), Duration.ZERO));
+                return shared;
+            }
+            shared.removeIf(current -> isExpired(current, now));
+            lastRemoved[0] = shared.isEmpty();
+            return lastRemoved[0] ? null : shared;
+        });
+        if (lastRemoved[0]) {
+            unlockListeners.forEach(listener -> listener.accept(lockConfiguration.getName()));
+        }
+    }
+
+    /**
+     * Extend shared lock: its record is replaced with lockConfiguration given.
+     * Lock is extended only if it still exists and isn't expired yet.
+     *
+     * @param previousConfiguration LockConfiguration the lock is held with
+     * @param lockConfiguration     new LockConfiguration object
+     * @return true if lock is extended; otherwise false.
+     */
+    public boolean extendShared(final LockConfiguration previousConfiguration,
+                                final LockConfiguration lockConfiguration) {
+        Instant now = ClockProvider.now();
+        boolean[] extended = new boolean[1];
+        sharedStorage.computeIfPresent(lockConfiguration.getName(), (name, shared) -> {
+            if (!isExpired(previousConfiguration, now) && shared.remove(previousConfiguration)) {
+                shared.add(lockConfiguration);
+                extended[0] = true;
+            }
+            return shared;
+        });
+        return extended[0];
+    }
+
+    /**
+     * Insert lock records of all lockConfigurations or none of them.
+     * Records are inserted one by one, so other callers may find a part of them held for a moment;
+     * records inserted before a busy one are then removed and unlock listeners are notified,
+     * so that callers waiting for those names make their next attempt at once.
+     *
+     * @param lockConfigurations list of LockConfiguration objects
+     * @return true if all lock records are inserted; otherwise false.
      */
     @Override
-    public boolean extend(final LockConfiguration lockConfiguration) {
-        return false;
+    public boolean insertRecords(final List<LockConfiguration> lockConfigurations) {
+        for (int i = 0; i < lockConfigurations.size(); i++) {
+            if (!tryLock(lockConfigurations.get(i))) {
+                for (int j = i - 1; j >= 0; j--) {
+                    LockConfiguration inserted = lockConfigurations.get(j);
+                    if (storage.remove(inserted.getName(), inserted)) {
+                        unlockListeners.forEach(listener -> listener.accept(inserted.getName()));
+                    }
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Insert lock record of each lockConfiguration whose lock is free, independently of the others.
+     * It's the in-memory counterpart of one multi-record insert/update statement of DB storages.
+     *
+     * @param lockConfigurations list of LockConfiguration objects with distinct names
+     * @return flags in the same order: true if the lock record is inserted; otherwise false.
+     */
+    @Override
+    public boolean[] insertEachRecord(final List<LockConfiguration> lockConfigurations) {
+        boolean[] inserted = new boolean[lockConfigurations.size()];
+        for (int i = 0; i < inserted.length; i++) {
+            inserted[i] = tryLock(lockConfigurations.get(i));
+        }
+        return inserted;
+    }
+
+    /**
+     * Insert shared lock record of each lockConfiguration whose lock has no exclusive record,
+     * independently of the others.
+     *
+     * @param lockConfigurations list of LockConfiguration objects
+     * @return flags in the same order: true if the shared lock record is inserted; otherwise false.
+     */
+    public boolean[] insertEachSharedRecord(final List<LockConfiguration> lockConfigurations) {
+        boolean[] inserted = new boolean[lockConfigurations.size()];
+        for (int i = 0; i < inserted.length; i++) {
+            inserted[i] = insertSharedRecord(lockConfigurations.get(i));
+        }
+        return inserted;
+    }
+
+    /**
+     * Insert lock record of each lockConfiguration whose lock is free and whose waiter is the first one
+     * in the queue of the name, independently of the others.
+     *
+     * @param lockConfigurations list of LockConfiguration objects with distinct names
+     * @param waiterIds          unique ids of the waiters, in the same order
+     * @param turnTimeouts       times the waiters keep their places without further attempts, in the same order
+     * @return flags in the same order: true if the lock record is inserted; otherwise false.
+     */
+    public boolean[] insertEachRecordInTurn(final List<LockConfiguration> lockConfigurations,
+                                            final List<String> waiterIds, final List<Duration> turnTimeouts) {
+        boolean[] inserted = new boolean[lockConfigurations.size()];
+        for (int i = 0; i < inserted.length; i++) {
+            inserted[i] = insertRecordInTurn(lockConfigurations.get(i), waiterIds.get(i), turnTimeouts.get(i));
+        }
+        return inserted;
+    }
+
+    /**
+     * Remove records of expired locks.
+     *
+     * @return number of records removed.
+     */
+    public int evictExpired() {
+        Instant now = ClockProvider.now();
+        int sizeBefore = storage.size();
+        storage.values().removeIf(current -> isExpired(current, now));
+        int removed = Math.max(0, sizeBefore - storage.size());
+        for (String name : sharedStorage.keySet()) {
+            int[] sharedRemoved = new int[1];
+            sharedStorage.computeIfPresent(name, (sharedName, shared) -> {
+                int sharedSizeBefore = shared.size();
+                shared.removeIf(current -> isExpired(current, now));
+                sharedRemoved[0] = sharedSizeBefore - shared.size();
+                return shared.isEmpty() ? null : shared;
+            });
+            removed += sharedRemoved[0];
+        }
+        for (String name : queues.keySet()) {
+            queues.computeIfPresent(name, (queueName, queue) -> {
+                queue.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+                return queue.isEmpty() ? null : queue;
+            });
+        }
+        lastEvictionMillis.set(System.currentTimeMillis());
+        return removed;
+    }
+
+    /**
+     * Get number of lock records, exclusive and shared ones, including expired ones not evicted yet.
+     *
+     * @return number of lock records.
+     */
+    public int getRecordCount() {
+        int count = storage.size();
+        for (String name : sharedStorage.keySet()) {
+            Set<LockConfiguration> shared = sharedStorage.computeIfPresent(name, (sharedName, records) -> records);
+            count += shared == null ? 0 : shared.size();
+        }
+        return count;
+    }
+
+    /**
+     * Get exclusive lock records not expired yet.
+     *
+     * @return copy of exclusive lock records.
+     */
+    public List<LockConfiguration> getRecords() {
+        Instant now = ClockProvider.now();
+        List<LockConfiguration> records = new ArrayList<>(storage.size());
+        storage.values().forEach(current -> {
+            if (!isExpired(current, now)) {
+                records.add(current);
+            }
+        });
+        return records;
+    }
+
+    /**
+     * Get shared lock records not expired yet.
+     *
+     * @return copy of shared lock records.
+     */
+    public List<LockConfiguration> getSharedRecords() {
+        Instant now = ClockProvider.now();
+        List<LockConfiguration> records = new ArrayList<>();
+        for (String name : sharedStorage.keySet()) {
+            sharedStorage.computeIfPresent(name, (sharedName, shared) -> {
+                shared.forEach(current -> {
+                    if (!isExpired(current, now)) {
+                        records.add(current);
+                    }
+                });
+                return shared;
+            });
+        }
+        return records;
+    }
+
+    /**
+     * Remove exclusive and shared lock records by the name, whoever holds them, and notify unlock listeners.
+     * Holders aren't notified: their unlock and extension have no effect afterwards.
+     *
+     * @param name the lock name
+     * @return number of records removed.
+     */
+    public int forceUnlock(final String name) {
+        int[] removed = new int[1];
+        storage.compute(name, (exclusiveName, current) -> {
+            removed[0] = current == null ? 0 : 1;
+            Set<LockConfiguration> shared = sharedStorage.remove(name);
+            removed[0] += shared == null ? 0 : shared.size();
+            return null;
+        });
+        if (removed[0] > 0) {
+            unlockListeners.forEach(listener -> listener.accept(name));
+        }
+        return removed[0];
+    }
+
+    private boolean tryLock(final LockConfiguration lockConfiguration) {
+        Instant now = ClockProvider.now();
+        boolean locked = storage.compute(lockConfiguration.getName(),
+                (name, current) -> (current == null || isExpired(current, now)) && !isSharedLocked(name, now)
+                        ? lockConfiguration : current)
+                == lockConfiguration;
+        evictExpiredIfDue();
+        return locked;
+    }
+
+    private void evictExpiredIfDue() {
+        long last = lastEvictionMillis.get();
+        long now = System.currentTimeMillis();
+        if (now - last >= evictionIntervalMillis && lastEvictionMillis.compareAndSet(last, now)) {
+            evictExpired();
+        }
+    }
+
+    private boolean takeTurn(final String name, final String waiterId, final Instant now, final Instant expiresAt,
+                             final boolean free) {
+        boolean[] taken = new boolean[1];
+        queues.compute(name, (queueName, current) -> {
+            LinkedHashMap<String, Instant> queue = current == null ? new LinkedHashMap<>() : current;
+            queue.values().removeIf(queuedUntil -> !queuedUntil.isAfter(now));
+            queue.put(waiterId, expiresAt);
+            taken[0] = free && waiterId.equals(queue.keySet().iterator().next());
+            if (taken[0]) {
+                queue.remove(waiterId);
+            }
+            return queue.isEmpty() ? null : queue;
+        });
+        return taken[0];
+    }
+
+    private boolean isSharedLocked(final String name, final Instant now) {
+        return sharedStorage.computeIfPresent(name, (sharedName, shared) -> {
+            shared.removeIf(current -> isExpired(current, now));
+            return shared.isEmpty() ? null : shared;
+        }) != null;
+    }
+
+    private static boolean isExpired(final LockConfiguration lockConfiguration, final Instant now) {
+        return !lockConfiguration.getLockAtMostUntil().isAfter(now);
     }
 }
@@ -0,0 +1,38 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock.provider;
+
+import java.util.Optional;
+
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+/**
+ * Lock provider able to obtain shared locks: any number of shared locks with the same name can be held at once,
+ * while an exclusive lock obtained by {@link #lock(LockConfiguration)} excludes both shared and exclusive ones.
+ */
+public interface SharedLockProvider extends LockProvider {
+
+    /**
+     * Obtain shared lock.
+     *
+     * @param lockConfiguration configuration of the lock
+     * @return the lock if obtained, i.e. there is no exclusive lock with the same name; otherwise empty.
+     */
+    Optional<SimpleLock> lockShared(LockConfiguration lockConfiguration);
+}
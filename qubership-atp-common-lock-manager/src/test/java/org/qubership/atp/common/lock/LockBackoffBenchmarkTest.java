@@ -0,0 +1,126 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import static java.lang.Thread.sleep;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.qubership.atp.common.lock.provider.InMemoryLockProvider;
+
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.LockProvider;
+
+/**
+ * Benchmark of backoff strategies: provider calls per acquired lock under contending waiters of different nodes.
+ * Each waiter has its own LockManager, so waiters aren't woken up by local releases and only backoff matters.
+ * Benchmarks are excluded from the build; run them with: mvn test -Dgroups=benchmark -DexcludedGroups=
+ */
+@Slf4j
+@Tag("benchmark")
+@SuppressWarnings("checkstyle:MagicNumber")
+public class LockBackoffBenchmarkTest {
+
+    /**
+     * Number of contending waiters.
+     */
+    private static final int WAITERS = 50;
+
+    /**
+     * Time each waiter holds the lock (milliseconds).
+     */
+    private static final long HOLD_MILLIS = 20;
+
+    /**
+     * Test when waiters back off exponentially or with decorrelated jitter
+     * then they make fewer provider calls per acquired lock than with fixed pace.
+     *
+     * @throws InterruptedException in case execution is interrupted.
+     */
+    @Test
+    public void providerCallsPerAcquiredLock() throws InterruptedException {
+        LockOptions baseOptions = LockOptions.builder()
+                .lease(Duration.ofSeconds(60))
+                .maxWait(Duration.ofMinutes(5))
+                .retryPace(Duration.ofMillis(100))
+                .build();
+        double fixed = run("FIXED", baseOptions);
+        run("FIXED with jitter", baseOptions.toBuilder().jitter(0.5).build());
+        double exponential = run("EXPONENTIAL", baseOptions.toBuilder()
+                .backoff(LockOptions.Backoff.EXPONENTIAL)
+                .retryPace(Duration.ofMillis(25))
+                .maxRetryPace(Duration.ofMillis(800))
+                .jitter(0.5)
+                .build());
+        double decorrelatedJitter = run("DECORRELATED_JITTER", baseOptions.toBuilder()
+                .backoff(LockOptions.Backoff.DECORRELATED_JITTER)
+                .retryPace(Duration.ofMillis(25))
+                .maxRetryPace(Duration.ofMillis(800))
+                .build());
+        run("DECORRELATED_JITTER with fast retries", baseOptions.toBuilder()
+                .backoff(LockOptions.Backoff.DECORRELATED_JITTER)
+                .retryPace(Duration.ofMillis(25))
+                .maxRetryPace(Duration.ofMillis(800))
+                .fastRetries(2)
+                .fastRetryPace(Duration.ofMillis(10))
+                .build());
+
+        Assertions.assertTrue(exponential < fixed, "EXPONENTIAL " + exponential + " vs FIXED " + fixed);
+        Assertions.assertTrue(decorrelatedJitter < fixed,
+                "DECORRELATED_JITTER " + decorrelatedJitter + " vs FIXED " + fixed);
+    }
+
+    private double run(final String name, final LockOptions options) throws InterruptedException {
+        InMemoryLockProvider inMemoryLockProvider = new InMemoryLockProvider();
+        AtomicInteger providerCalls = new AtomicInteger();
+        LockProvider sharedLockProvider = lockConfiguration -> {
+            providerCalls.incrementAndGet();
+            return inMemoryLockProvider.lock(lockConfiguration);
+        };
+        AtomicInteger acquired = new AtomicInteger();
+        List<LockManager> lockManagers = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(WAITERS);
+        long start = System.nanoTime();
+        for (int i = 0; i < WAITERS; i++) {
+            LockManager lockManager = new LockManager(60, 300, 1, sharedLockProvider);
+            lockManagers.add(lockManager);
+            executor.submit(() -> lockManager.executeWithLock("benchmark", options, () -> {
+                sleep(HOLD_MILLIS);
+                return acquired.incrementAndGet();
+            }, () -> 0));
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        lockManagers.forEach(LockManager::shutdown);
+
+        Assertions.assertEquals(WAITERS, acquired.get());
+        double callsPerLock = (double) providerCalls.get() / acquired.get();
+        log.info("{}: {} provider calls per acquired lock, {} ms for {} waiters", name,
+                String.format("%.1f", callsPerLock), elapsedMillis, WAITERS);
+        return callsPerLock;
+    }
+}
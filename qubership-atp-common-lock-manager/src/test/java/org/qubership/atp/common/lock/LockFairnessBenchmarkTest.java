@@ -0,0 +1,131 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import static java.lang.Thread.sleep;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.qubership.atp.common.lock.provider.InMemoryLockProvider;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Benchmark of fair and unfair lock waiters: wait time percentiles under contention of callers of several nodes.
+ * Each node has its own LockManager sharing the same in-memory lock provider; each caller locks the key repeatedly.
+ * Benchmarks are excluded from the build; run them with: mvn test -Dgroups=benchmark -DexcludedGroups=
+ */
+@Slf4j
+@Tag("benchmark")
+@SuppressWarnings("checkstyle:MagicNumber")
+public class LockFairnessBenchmarkTest {
+
+    /**
+     * Number of nodes.
+     */
+    private static final int NODES = 4;
+
+    /**
+     * Number of callers of each node.
+     */
+    private static final int CALLERS_PER_NODE = 8;
+
+    /**
+     * Number of locks obtained by each caller.
+     */
+    private static final int ROUNDS = 25;
+
+    /**
+     * Time each caller holds the lock (milliseconds).
+     */
+    private static final long HOLD_MILLIS = 2;
+
+    /**
+     * Test when waiters of several nodes contend for the lock then fair mode bounds the tail of wait times:
+     * p99 and p999 of fair waiters don't exceed the ones of unfair waiters.
+     *
+     * @throws InterruptedException in case execution is interrupted.
+     */
+    @Test
+    public void waitTimePercentiles() throws InterruptedException {
+        LockOptions options = LockOptions.builder()
+                .lease(Duration.ofSeconds(60))
+                .maxWait(Duration.ofMinutes(5))
+                .retryPace(Duration.ofMillis(50))
+                .build();
+        List<Long> unfair = run("Unfair", options);
+        List<Long> fair = run("Fair", options.toBuilder().fair(true).build());
+
+        Assertions.assertTrue(percentile(fair, 0.99) <= percentile(unfair, 0.99),
+                "Fair p99 " + percentile(fair, 0.99) + " us vs unfair p99 " + percentile(unfair, 0.99) + " us");
+        Assertions.assertTrue(percentile(fair, 0.999) <= percentile(unfair, 0.999),
+                "Fair p999 " + percentile(fair, 0.999) + " us vs unfair p999 " + percentile(unfair, 0.999) + " us");
+    }
+
+    private List<Long> run(final String name, final LockOptions options) throws InterruptedException {
+        InMemoryLockProvider lockProvider = new InMemoryLockProvider();
+        List<Long> waitMicros = Collections.synchronizedList(new ArrayList<>());
+        List<LockManager> lockManagers = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(NODES * CALLERS_PER_NODE);
+        for (int node = 0; node < NODES; node++) {
+            LockManager lockManager = new LockManager(60, 300, 1, lockProvider);
+            lockManagers.add(lockManager);
+            for (int caller = 0; caller < CALLERS_PER_NODE; caller++) {
+                executor.submit(() -> {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        long start = System.nanoTime();
+                        lockManager.executeWithLock("benchmark", options, () -> {
+                            waitMicros.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                            sleep(HOLD_MILLIS);
+                            return true;
+                        }, () -> false);
+                    }
+                    return true;
+                });
+            }
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        lockManagers.forEach(LockManager::shutdown);
+
+        List<Long> sorted = new ArrayList<>(waitMicros);
+        Collections.sort(sorted);
+        Assertions.assertEquals(NODES * CALLERS_PER_NODE * ROUNDS, sorted.size());
+        log.info("{}: wait time p50 {} ms, p99 {} ms, p999 {} ms, max {} ms", name,
+                percentileMillis(sorted, 0.5), percentileMillis(sorted, 0.99), percentileMillis(sorted, 0.999),
+                percentileMillis(sorted, 1));
+        return sorted;
+    }
+
+    private static long percentile(final List<Long> sortedMicros, final double percentile) {
+        int index = (int) Math.min(sortedMicros.size() - 1, Math.ceil(percentile * sortedMicros.size()) - 1);
+        return sortedMicros.get(Math.max(0, index));
+    }
+
+    private static String percentileMillis(final List<Long> sortedMicros, final double percentile) {
+        return String.format("%.1f", percentile(sortedMicros, percentile) / 1000.0);
+    }
+}
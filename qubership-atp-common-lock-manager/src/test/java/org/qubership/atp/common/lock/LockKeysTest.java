@@ -0,0 +1,58 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+public class LockKeysTest {
+
+    /**
+     * Test when the key fits max key size then it isn't changed; otherwise it keeps the prefix and fits the size.
+     */
+    @Test
+    public void compactWhenKeyIsLongThenPrefixAndHashKept() {
+        String longKey = "sync:" + "x".repeat(200);
+
+        Assertions.assertEquals("sync:1", LockKeys.compact("sync:1"));
+        Assertions.assertEquals(LockKeys.MAX_KEY_SIZE, LockKeys.compact(longKey).length());
+        Assertions.assertTrue(LockKeys.compact(longKey).startsWith("sync:xxx"));
+        Assertions.assertEquals(LockKeys.compact(longKey), LockKeys.compact(new String(longKey)));
+        Assertions.assertNotEquals(LockKeys.compact(longKey), LockKeys.compact(longKey + "y"));
+    }
+
+    /**
+     * Test when unique keys are made of the same long key then they are different and fit max key size.
+     */
+    @Test
+    public void uniqueWhenSameKeyThenKeysDifferent() {
+        String longKey = "export:" + "x".repeat(200);
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = LockKeys.unique(longKey);
+            Assertions.assertTrue(key.length() <= LockKeys.MAX_KEY_SIZE);
+            Assertions.assertTrue(key.startsWith("export:xxx"));
+            keys.add(key);
+            keys.add(LockKeys.unique("export"));
+        }
+        Assertions.assertEquals(2000, keys.size());
+    }
+}
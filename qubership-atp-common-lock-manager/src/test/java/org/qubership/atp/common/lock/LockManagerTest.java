@@ -18,17 +18,34 @@ package org.qubership.atp.common.lock;
 
 import static java.lang.Thread.sleep;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.qubership.atp.common.lock.exceptions.AtpLockRejectException;
+import org.qubership.atp.common.lock.provider.BatchLockProvider;
 import org.qubership.atp.common.lock.provider.InMemoryLockProvider;
 
 import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
 
 @Slf4j
 @SuppressWarnings("checkstyle:MagicNumber")
@@ -158,4 +175,699 @@ public class LockManagerTest {
         Assertions.assertTrue(result1);
         Assertions.assertFalse(result2);
     }
+
+    /**
+     * Test when executing runnable with lock but don't wait and the lock is busy
+     * then the call returns at once without running it.
+     */
+    @Test
+    public void executeWithLockNoWaitRunnableWhenLockBusyThenReturnedAtOnce() {
+        AtomicInteger runs = new AtomicInteger();
+        try (LockHandle handle = lockManager.tryLock("nw", Duration.ofSeconds(10)).orElseThrow()) {
+            long start = System.nanoTime();
+            lockManager.executeWithLockNoWait("nw", runs::incrementAndGet);
+            lockManager.executeWithLockNoWait("nw", 10, runs::incrementAndGet);
+
+            Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+            Assertions.assertEquals(0, runs.get());
+        }
+        lockManager.executeWithLockNoWait("nw", runs::incrementAndGet);
+        Assertions.assertEquals(1, runs.get());
+    }
+
+    /**
+     * Test when lock is released in the same JVM then waiting caller obtains it without waiting retry pace.
+     *
+     * @throws ExecutionException in case task execution exceptions
+     * @throws InterruptedException in case execution is interrupted (or before trying it).
+     */
+    @Test
+    public void executeWithLockReleasedLocallyThenWaiterWokenBeforeRetryPace()
+            throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Boolean> task1 = executor.submit(
+                () -> lockManager.executeWithLock("b", 60, () -> {
+                    sleep(1500);
+                    return true;
+                }, () -> false));
+
+        sleep(200);
+
+        long start = System.currentTimeMillis();
+        Future<Long> task2 = executor.submit(
+                () -> lockManager.executeWithLock("b", 15, System::currentTimeMillis, () -> -1L));
+
+        Assertions.assertTrue(task1.get());
+        long obtainedAfter = task2.get() - start;
+        Assertions.assertTrue(obtainedAfter > 0 && obtainedAfter < 2500,
+                "Lock is obtained after " + obtainedAfter + " ms");
+    }
+
+    /**
+     * Test when executing with lock asynchronously and lock is busy then future completes after release.
+     *
+     * @throws ExecutionException in case task execution exceptions
+     * @throws InterruptedException in case execution is interrupted (or before trying it).
+     */
+    @Test
+    public void executeWithLockAsyncWaitLockThenLockObtained() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        Future<Boolean> task1 = executor.submit(
+                () -> lockManager.executeWithLock("c", 60, () -> {
+                    sleep(1000);
+                    return true;
+                }, () -> false));
+
+        sleep(200);
+
+        CompletableFuture<Boolean> task2 = lockManager.executeWithLockAsync("c", 15, () -> true);
+        Assertions.assertFalse(task2.isDone());
+        Assertions.assertTrue(task1.get());
+        Assertions.assertTrue(task2.get());
+    }
+
+    /**
+     * Test when executing with lock asynchronously and wait lock not enough time then future fails.
+     *
+     * @throws InterruptedException in case execution is interrupted (or before trying it).
+     */
+    @Test
+    public void executeWithLockAsyncWaitLockThenLockNotObtained() throws InterruptedException {
+        LockManager shortWaitLockManager = new LockManager(60, 1, 1, new InMemoryLockProvider());
+        CompletableFuture<Boolean> task1 = shortWaitLockManager.executeWithLockAsync("d", 15, () -> {
+            sleep(3000);
+            return true;
+        });
+
+        sleep(200);
+
+        CompletableFuture<Boolean> task2 = shortWaitLockManager.executeWithLockAsync("d", 10, () -> true);
+        ExecutionException result = Assertions.assertThrows(ExecutionException.class, task2::get);
+        Assertions.assertInstanceOf(AtpLockRejectException.class, result.getCause());
+        Assertions.assertFalse(task1.isDone());
+        shortWaitLockManager.shutdown();
+    }
+
+    /**
+     * Test when lease renewal is enabled then lock outlives its initial lease while the task is running.
+     *
+     * @throws ExecutionException in case task execution exceptions
+     * @throws InterruptedException in case execution is interrupted (or before trying it).
+     */
+    @Test
+    public void executeWithLockLeaseRenewedThenLockNotExpired() throws InterruptedException, ExecutionException {
+        lockManager.setLeaseRenewalIntervalSec(1);
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        Future<Boolean> task1 = executor.submit(
+                () -> lockManager.executeWithLock("e", 2, () -> {
+                    sleep(3500);
+                    return true;
+                }, () -> false));
+
+        sleep(2500);
+
+        Boolean result2 = lockManager.executeWithLockNoWait("e", 1, () -> true, () -> false);
+        Assertions.assertTrue(task1.get());
+        Assertions.assertFalse(result2);
+    }
+
+    /**
+     * Test when local lock first is enabled then only the local winner calls the lock provider.
+     *
+     * @throws InterruptedException in case execution is interrupted (or before trying it).
+     */
+    @Test
+    public void executeWithLockLocalLockFirstThenProviderCalledByLocalWinnerOnly() throws InterruptedException {
+        InMemoryLockProvider inMemoryLockProvider = new InMemoryLockProvider();
+        AtomicInteger providerCalls = new AtomicInteger();
+        LockProvider countingLockProvider = lockConfiguration -> {
+            providerCalls.incrementAndGet();
+            return inMemoryLockProvider.lock(lockConfiguration);
+        };
+        LockManager localFirstLockManager = new LockManager(60, 20, 3, countingLockProvider);
+        localFirstLockManager.setLocalLockFirst(true);
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> localFirstLockManager.executeWithLock("f", 60, () -> {
+                sleep(50);
+                return executions.incrementAndGet();
+            }, () -> 0));
+        }
+        executor.shutdown();
+
+        Assertions.assertTrue(executor.awaitTermination(20, TimeUnit.SECONDS));
+        Assertions.assertEquals(8, executions.get());
+        Assertions.assertEquals(8, providerCalls.get());
+        localFirstLockManager.shutdown();
+    }
+
+    /**
+     * Test when unlock of the lock provider fails then the lock is forgotten by the lock manager,
+     * so later callers of the JVM aren't blocked by the local lock of the key.
+     */
+    @Test
+    public void executeWithLockWhenUnlockFailsThenLockForgotten() {
+        InMemoryLockProvider inMemoryLockProvider = new InMemoryLockProvider();
+        LockProvider failingUnlockProvider = lockConfiguration -> inMemoryLockProvider.lock(lockConfiguration)
+                .map(lock -> () -> {
+                    lock.unlock();
+                    throw new IllegalStateException("Connection is lost after unlock");
+                });
+        LockManager localFirstLockManager = new LockManager(60, 20, 3, failingUnlockProvider);
+        localFirstLockManager.setLocalLockFirst(true);
+        AtomicInteger executions = new AtomicInteger();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> localFirstLockManager.executeWithLock("u", 60,
+                executions::incrementAndGet, () -> 0));
+        Assertions.assertTrue(localFirstLockManager.getHeldLocks().isEmpty());
+        Assertions.assertThrows(IllegalStateException.class, () -> localFirstLockManager.executeWithLockNoWait("u",
+                60, executions::incrementAndGet, () -> 0));
+        Assertions.assertEquals(2, executions.get());
+        localFirstLockManager.shutdown();
+    }
+
+    /**
+     * Test when the key is already being executed then concurrent single-flight callers share its result.
+     *
+     * @throws ExecutionException in case task execution exceptions
+     * @throws InterruptedException in case execution is interrupted (or before trying it).
+     */
+    @Test
+    public void executeSingleFlightConcurrentCallsThenCallableExecutedOnce()
+            throws InterruptedException, ExecutionException {
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Future<Integer> task1 = executor.submit(() -> lockManager.executeSingleFlight("g", () -> {
+            sleep(1000);
+            return executions.incrementAndGet();
+        }));
+
+        sleep(200);
+
+        Future<Integer> task2 = executor.submit(
+                () -> lockManager.executeSingleFlight("g", executions::incrementAndGet));
+        Future<Integer> task3 = executor.submit(
+                () -> lockManager.executeSingleFlight("g", executions::incrementAndGet));
+        Assertions.assertEquals(1, task1.get());
+        Assertions.assertEquals(1, task2.get());
+        Assertions.assertEquals(1, task3.get());
+        Assertions.assertEquals(1, executions.get());
+        executor.shutdown();
+    }
+
+    /**
+     * Test when lock options profile with short max wait is given then caller is rejected after that wait.
+     *
+     * @throws ExecutionException in case task execution exceptions
+     * @throws InterruptedException in case execution is interrupted (or before trying it).
+     */
+    @Test
+    public void executeWithLockOptionsShortMaxWaitThenRejectedQuickly()
+            throws InterruptedException, ExecutionException {
+        lockManager.setProfiles(Collections.singletonMap("fast", lockManager.getDefaultOptions().toBuilder()
+                .maxWait(Duration.ofMillis(200))
+                .retryPace(Duration.ofMillis(50))
+                .build()));
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        Future<Boolean> task1 = executor.submit(
+                () -> lockManager.executeWithLock("h", 60, () -> {
+                    sleep(2000);
+                    return true;
+                }, () -> false));
+
+        sleep(200);
+
+        long start = System.nanoTime();
+        Boolean result2 = lockManager.executeWithLock("h", lockManager.getOptions("fast"), () -> true, () -> false);
+        Assertions.assertFalse(result2);
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        Assertions.assertTrue(task1.get());
+        executor.shutdown();
+    }
+
+    /**
+     * Test when lock options with min hold are given then lock is held after the task is finished.
+     */
+    @Test
+    public void executeWithLockOptionsMinHoldThenLockHeldAfterTask() {
+        LockOptions minHoldOptions = lockManager.getDefaultOptions().toBuilder()
+                .minHold(Duration.ofSeconds(30))
+                .build();
+
+        Assertions.assertTrue(lockManager.executeWithLock("i", minHoldOptions, () -> true, () -> false));
+        Assertions.assertFalse(lockManager.executeWithLockNoWait("i", () -> true, () -> false));
+    }
+
+    /**
+     * Test when the lock is acquired again by nested calls of the same thread then it's obtained immediately.
+     */
+    @Test
+    public void executeWithLockNestedCallsThenLockObtainedWithHoldCount() {
+        long start = System.nanoTime();
+        Integer holdCount = lockManager.executeWithLock("j", () ->
+                lockManager.executeWithLock("k", () ->
+                        lockManager.executeWithLock("j", () -> lockManager.getHoldCount("j"), () -> -1),
+                        () -> -1),
+                () -> -1);
+
+        Assertions.assertEquals(2, holdCount);
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        Assertions.assertEquals(0, lockManager.getHoldCount("j"));
+        Assertions.assertTrue(lockManager.executeWithLockNoWait("j", () -> true, () -> false));
+    }
+
+    /**
+     * Test when callers lock intersecting key sets in different orders then both are executed without deadlock.
+     *
+     * @throws ExecutionException in case task execution exceptions
+     * @throws InterruptedException in case execution is interrupted (or before trying it).
+     * @throws TimeoutException in case the task isn't finished in time, e.g. because of deadlock.
+     */
+    @Test
+    public void executeWithLocksIntersectingKeysThenNoDeadlock()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Boolean> task1 = executor.submit(() -> lockManager.executeWithLocks(Arrays.asList("l", "m"), () -> {
+            sleep(500);
+            return true;
+        }, () -> false));
+        Future<Boolean> task2 = executor.submit(() -> lockManager.executeWithLocks(Arrays.asList("m", "l"), () -> {
+            sleep(500);
+            return true;
+        }, () -> false));
+
+        Assertions.assertTrue(task1.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(task2.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    /**
+     * Test when any key of the set is busy then no key of the set is held by the rejected caller.
+     */
+    @Test
+    public void executeWithLocksWhenKeyBusyThenNoKeyHeld() {
+        LockOptions noWaitOptions = lockManager.getDefaultOptions().toBuilder().maxWait(Duration.ZERO).build();
+
+        Boolean result = lockManager.executeWithLock("o", () -> lockManager.executeWithLocks(
+                Arrays.asList("n", "o", "p"), noWaitOptions, () -> true, () -> false), () -> null);
+        Assertions.assertTrue(result);
+        Boolean result2 = lockManager.executeWithLock("o", () -> CompletableFuture.supplyAsync(
+                () -> lockManager.executeWithLocks(Arrays.asList("n", "o"), noWaitOptions, () -> true, () -> false))
+                .join(), () -> null);
+        Assertions.assertFalse(result2);
+        Assertions.assertTrue(lockManager.executeWithLockNoWait("n", () -> true, () -> false));
+    }
+
+    /**
+     * Test when several callers execute with permits of the same key then no more than permits run concurrently.
+     *
+     * @throws ExecutionException in case task execution exceptions
+     * @throws InterruptedException in case execution is interrupted
+     * @throws TimeoutException in case execution isn't finished in time.
+     */
+    @Test
+    public void executeWithPermitSeveralCallersThenConcurrencyLimitedByPermits()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Future<?>[] tasks = new Future<?>[6];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = executor.submit(() -> lockManager.executeWithPermit("q", 2, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(200);
+                running.decrementAndGet();
+                return true;
+            }, () -> false));
+        }
+
+        for (Future<?> task : tasks) {
+            Assertions.assertEquals(true, task.get(10, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(2, maxRunning.get());
+        executor.shutdown();
+    }
+
+    /**
+     * Test when read lock is held then other readers proceed in parallel, while writer is rejected.
+     *
+     * @throws ExecutionException in case task execution exceptions
+     * @throws InterruptedException in case execution is interrupted
+     * @throws TimeoutException in case execution isn't finished in time.
+     */
+    @Test
+    public void executeWithReadLockWhenReadLockHeldThenReadersProceedAndWriterWaits()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        LockOptions noWaitOptions = lockManager.getDefaultOptions().toBuilder().maxWait(Duration.ZERO).build();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch readersInside = new CountDownLatch(2);
+        Callable<Boolean> reader = () -> lockManager.executeWithReadLock("r", noWaitOptions, () -> {
+            readersInside.countDown();
+            return readersInside.await(5, TimeUnit.SECONDS);
+        }, () -> false);
+        Future<Boolean> reader1 = executor.submit(reader);
+        Future<Boolean> reader2 = executor.submit(reader);
+
+        Assertions.assertTrue(reader1.get(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(reader2.get(10, TimeUnit.SECONDS));
+        Boolean writerResult = lockManager.executeWithReadLock("r", () -> CompletableFuture.supplyAsync(
+                () -> lockManager.executeWithWriteLock("r", noWaitOptions, () -> true, () -> false)).join(),
+                () -> null);
+        Assertions.assertFalse(writerResult);
+        Assertions.assertTrue(lockManager.executeWithWriteLock("r", noWaitOptions, () -> true, () -> false));
+        executor.shutdown();
+    }
+
+    /**
+     * Test when fair waiters wait for the lock then they obtain it in arrival order.
+     *
+     * @throws InterruptedException in case execution is interrupted.
+     */
+    @Test
+    public void executeWithLockFairWaitersThenLockObtainedInArrivalOrder() throws InterruptedException {
+        LockOptions fairOptions = lockManager.getDefaultOptions().toBuilder().fair(true).build();
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch holderInside = new CountDownLatch(1);
+        executor.submit(() -> lockManager.executeWithLock("s", fairOptions, () -> {
+            holderInside.countDown();
+            sleep(500);
+            return true;
+        }, () -> false));
+        Assertions.assertTrue(holderInside.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            int waiter = i;
+            executor.submit(() -> lockManager.executeWithLock("s", fairOptions, () -> order.add(waiter), () -> false));
+            sleep(50);
+        }
+
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(Arrays.asList(0, 1, 2, 3, 4), order);
+    }
+
+    /**
+     * Test when fair waiters of several nodes sharing the lock provider wait for the lock
+     * then they obtain it in arrival order.
+     *
+     * @throws InterruptedException in case execution is interrupted.
+     */
+    @Test
+    public void executeWithLockFairWaitersOfSeveralNodesThenLockObtainedInArrivalOrder()
+            throws InterruptedException {
+        InMemoryLockProvider sharedLockProvider = new InMemoryLockProvider();
+        List<LockManager> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(new LockManager(60, 20, 3, sharedLockProvider));
+        }
+        LockOptions fairOptions = LockOptions.builder()
+                .lease(Duration.ofSeconds(60))
+                .maxWait(Duration.ofSeconds(10))
+                .retryPace(Duration.ofMillis(20))
+                .fair(true)
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch holderInside = new CountDownLatch(1);
+        executor.submit(() -> nodes.get(0).executeWithLock("s", fairOptions, () -> {
+            holderInside.countDown();
+            sleep(500);
+            return true;
+        }, () -> false));
+        Assertions.assertTrue(holderInside.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 8; i++) {
+            int waiter = i;
+            LockManager node = nodes.get(i % nodes.size());
+            executor.submit(() -> node.executeWithLock("s", fairOptions, () -> {
+                order.add(waiter);
+                sleep(10);
+                return true;
+            }, () -> false));
+            sleep(50);
+        }
+
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(20, TimeUnit.SECONDS));
+        Assertions.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7), order);
+        nodes.forEach(LockManager::shutdown);
+    }
+
+    /**
+     * Test when lock handle is open then the lock is held until the handle is closed.
+     */
+    @Test
+    public void tryLockWhenHandleOpenThenLockHeldUntilClosed() {
+        try (LockHandle handle = lockManager.tryLock("t", Duration.ofSeconds(10)).orElseThrow()) {
+            Assertions.assertTrue(handle.extend());
+            Assertions.assertTrue(lockManager.tryLock("t", Duration.ofSeconds(10)).isEmpty());
+            Assertions.assertThrows(AtpLockRejectException.class,
+                    () -> lockManager.lock("t", Duration.ofSeconds(10), Duration.ofMillis(100)));
+        }
+
+        try (LockHandle handle = lockManager.lock("t", Duration.ofSeconds(10), Duration.ofMillis(100))) {
+            Assertions.assertEquals("t", handle.getLockKey());
+        }
+    }
+
+    /**
+     * Test when the limit of waiters of the key is reached then further callers are rejected at once.
+     *
+     * @throws InterruptedException in case execution is interrupted.
+     */
+    @Test
+    public void executeWithLockWhenWaitersLimitReachedThenRejectedAtOnce() throws InterruptedException {
+        lockManager.setMaxWaitersPerKey(1);
+        try (LockHandle handle = lockManager.tryLock("w", Duration.ofSeconds(10)).orElseThrow()) {
+            CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() ->
+                    lockManager.executeWithLock("w", () -> true, () -> false));
+            sleep(200);
+
+            long startMillis = System.currentTimeMillis();
+            Assertions.assertFalse(lockManager.executeWithLock("w", () -> true, () -> false));
+            Assertions.assertTrue(System.currentTimeMillis() - startMillis < 1000);
+            Assertions.assertTrue(lockManager.executeWithLock("other", () -> true, () -> false));
+
+            handle.close();
+            Assertions.assertTrue(waiting.join());
+        }
+    }
+
+    /**
+     * Test when lock waits are bounded by max wait of the call then nested calls give up at its deadline.
+     */
+    @Test
+    public void executeWithMaxWaitWhenLockBusyThenRejectedAtDeadline() {
+        try (LockHandle handle = lockManager.tryLock("d", Duration.ofSeconds(10)).orElseThrow()) {
+            long startMillis = System.currentTimeMillis();
+
+            boolean result = lockManager.executeWithMaxWait(Duration.ofMillis(300), () ->
+                    lockManager.executeWithMaxWait(Duration.ofSeconds(10), () ->
+                            lockManager.executeWithLock("d", () -> true, () -> false)));
+
+            Assertions.assertFalse(result);
+            Assertions.assertTrue(System.currentTimeMillis() - startMillis < 2000);
+        }
+    }
+
+    /**
+     * Test when async calls are made within max wait of the call then their retries and lock calls
+     * of their callables, made on other threads, give up at its deadline.
+     *
+     * @throws Exception in case of the future failure.
+     */
+    @Test
+    public void executeWithMaxWaitWhenAsyncCallsThenDeadlineCarried() throws Exception {
+        try (LockHandle handle = lockManager.tryLock("d2", Duration.ofSeconds(10)).orElseThrow()) {
+            CompletableFuture<Boolean> nested = lockManager.executeWithMaxWait(Duration.ofMillis(300), () ->
+                    lockManager.executeWithLockAsync("d3", 60,
+                            () -> lockManager.executeWithLock("d2", () -> true, () -> false)));
+            CompletableFuture<Boolean> retried = lockManager.executeWithMaxWait(Duration.ofMillis(300), () ->
+                    lockManager.executeWithLockAsync("d2", () -> true));
+
+            Assertions.assertFalse(nested.get(2, TimeUnit.SECONDS));
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                    () -> retried.get(2, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(AtpLockRejectException.class, e.getCause());
+        }
+    }
+
+    /**
+     * Test when locks of a key prefix are held for a short time then pause and lease follow the hold time.
+     *
+     * @throws InterruptedException in case execution is interrupted.
+     */
+    @Test
+    public void retryPaceWhenAdaptiveThenFollowsHoldTime() throws InterruptedException {
+        lockManager.setAdaptiveRetryPace(true);
+        lockManager.setAdaptiveLease(true);
+        Assertions.assertEquals(3000, lockManager.retryPaceMillis("fast:0", lockManager.getDefaultOptions(), 0, 0));
+
+        for (int i = 0; i < HoldStatistics.MIN_SAMPLES; i++) {
+            try (LockHandle handle = lockManager.tryLock("fast:" + i, Duration.ofSeconds(10)).orElseThrow()) {
+                sleep(100);
+            }
+        }
+
+        HoldEstimate estimate = lockManager.getHoldEstimates().get(0);
+        Assertions.assertEquals("fast", estimate.getKeyPrefix());
+        Assertions.assertEquals(HoldStatistics.MIN_SAMPLES, estimate.getSamples());
+        Assertions.assertTrue(estimate.getMeanHold().toMillis() >= 100);
+        Assertions.assertTrue(estimate.getSuggestedLease().compareTo(estimate.getMeanHold()) > 0);
+        long firstPaceMillis = lockManager.retryPaceMillis("fast:9", lockManager.getDefaultOptions(), 0, 0);
+        long nextPaceMillis = lockManager.retryPaceMillis("fast:9", lockManager.getDefaultOptions(), 1, 0);
+        Assertions.assertTrue(firstPaceMillis >= 50 && firstPaceMillis < 1000);
+        Assertions.assertTrue(nextPaceMillis < firstPaceMillis);
+        Assertions.assertEquals(3000, lockManager.retryPaceMillis("slow:0", lockManager.getDefaultOptions(), 0, 0));
+    }
+
+    /**
+     * Test when lease batching is enabled and callers of distinct keys come at once
+     * then their attempts are made with a few lock provider calls, and a busy key is rejected alone.
+     *
+     * @throws InterruptedException in case execution is interrupted.
+     */
+    @Test
+    public void executeWithLockLeaseBatchingThenAttemptsCoalesced() throws InterruptedException {
+        InMemoryLockProvider inMemoryLockProvider = new InMemoryLockProvider();
+        AtomicInteger providerCalls = new AtomicInteger();
+        BatchLockProvider countingLockProvider = new BatchLockProvider() {
+            @Override
+            public Optional<SimpleLock> lock(final LockConfiguration lockConfiguration) {
+                providerCalls.incrementAndGet();
+                return inMemoryLockProvider.lock(lockConfiguration);
+            }
+
+            @Override
+            public Optional<List<SimpleLock>> lockAll(final List<LockConfiguration> lockConfigurations) {
+                providerCalls.incrementAndGet();
+                return inMemoryLockProvider.lockAll(lockConfigurations);
+            }
+
+            @Override
+            public List<Optional<SimpleLock>> lockEach(final List<LockConfiguration> lockConfigurations) {
+                providerCalls.incrementAndGet();
+                return inMemoryLockProvider.lockEach(lockConfigurations);
+            }
+        };
+        LockManager batchingLockManager = new LockManager(60, 20, 3, countingLockProvider);
+        batchingLockManager.setLeaseBatching(Duration.ofMillis(50), 100);
+        LockHandle busy = batchingLockManager.tryLock("job:0", Duration.ofSeconds(10)).orElseThrow();
+        providerCalls.set(0);
+        AtomicInteger executions = new AtomicInteger();
+        AtomicInteger rejections = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        for (int i = 0; i < 32; i++) {
+            String lockKey = "job:" + i;
+            executor.submit(() -> {
+                start.await();
+                return batchingLockManager.executeWithLockNoWait(lockKey, 60, executions::incrementAndGet,
+                        rejections::incrementAndGet);
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        Assertions.assertTrue(executor.awaitTermination(20, TimeUnit.SECONDS));
+        Assertions.assertEquals(31, executions.get());
+        Assertions.assertEquals(1, rejections.get());
+        Assertions.assertTrue(providerCalls.get() < 8, "Lock provider calls: " + providerCalls.get());
+        busy.close();
+        batchingLockManager.shutdown();
+    }
+
+    /**
+     * Test when lease batching enabled and a lock provider call is in flight
+     * then the next caller opens a new batch without waiting for that call.
+     */
+    @Test
+    public void executeWithLockLeaseBatchingWhenCallInFlightThenNextCallerNotBlocked() throws Exception {
+        InMemoryLockProvider inMemoryLockProvider = new InMemoryLockProvider();
+        CountDownLatch slowCallStarted = new CountDownLatch(1);
+        CountDownLatch slowCallReleased = new CountDownLatch(1);
+        BatchLockProvider slowLockProvider = new BatchLockProvider() {
+            @Override
+            public Optional<SimpleLock> lock(final LockConfiguration lockConfiguration) {
+                return inMemoryLockProvider.lock(lockConfiguration);
+            }
+
+            @Override
+            public Optional<List<SimpleLock>> lockAll(final List<LockConfiguration> lockConfigurations) {
+                return inMemoryLockProvider.lockAll(lockConfigurations);
+            }
+
+            @Override
+            public List<Optional<SimpleLock>> lockEach(final List<LockConfiguration> lockConfigurations) {
+                if (lockConfigurations.get(0).getName().equals("slow")) {
+                    slowCallStarted.countDown();
+                    try {
+                        slowCallReleased.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return inMemoryLockProvider.lockEach(lockConfigurations);
+            }
+        };
+        LockManager batchingLockManager = new LockManager(60, 20, 3, slowLockProvider);
+        batchingLockManager.setLeaseBatching(Duration.ofMillis(10), 100);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> slow = executor.submit(() -> batchingLockManager.executeWithLockNoWait("slow", 60,
+                    () -> 1, () -> 0));
+            Assertions.assertTrue(slowCallStarted.await(5, TimeUnit.SECONDS));
+            Future<Integer> fast = executor.submit(() -> batchingLockManager.executeWithLockNoWait("fast", 60,
+                    () -> 1, () -> 0));
+
+            Assertions.assertEquals(1, fast.get(5, TimeUnit.SECONDS));
+            Assertions.assertFalse(slow.isDone());
+            slowCallReleased.countDown();
+            Assertions.assertEquals(1, slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            slowCallReleased.countDown();
+            executor.shutdownNow();
+            batchingLockManager.shutdown();
+        }
+    }
+
+    /**
+     * Test when lease batching enabled and concurrent read locks of one key
+     * then shared attempts are coalesced into few lock provider calls.
+     */
+    @Test
+    public void executeWithReadLockLeaseBatchingThenSharedAttemptsCoalesced() throws InterruptedException {
+        AtomicInteger providerCalls = new AtomicInteger();
+        InMemoryLockProvider countingLockProvider = new InMemoryLockProvider() {
+            @Override
+            public Optional<SimpleLock> lockShared(final LockConfiguration lockConfiguration) {
+                providerCalls.incrementAndGet();
+                return super.lockShared(lockConfiguration);
+            }
+
+            @Override
+            public List<Optional<SimpleLock>> lockEachShared(final List<LockConfiguration> lockConfigurations) {
+                providerCalls.incrementAndGet();
+                return super.lockEachShared(lockConfigurations);
+            }
+        };
+        LockManager batchingLockManager = new LockManager(60, 20, 3, countingLockProvider);
+        batchingLockManager.setLeaseBatching(Duration.ofMillis(50), 100);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 16; i++) {
+            executor.submit(() -> {
+                start.await();
+                return batchingLockManager.executeWithReadLock("report", executions::incrementAndGet, () -> 0);
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        Assertions.assertTrue(executor.awaitTermination(20, TimeUnit.SECONDS));
+        Assertions.assertEquals(16, executions.get());
+        Assertions.assertTrue(providerCalls.get() < 8, "Lock provider calls: " + providerCalls.get());
+        batchingLockManager.shutdown();
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+public class LockOptionsTest {
+
+    /**
+     * Base options for tests.
+     */
+    private final LockOptions baseOptions = LockOptions.builder()
+            .lease(Duration.ofSeconds(60))
+            .maxWait(Duration.ofMinutes(5))
+            .retryPace(Duration.ofMillis(100))
+            .maxRetryPace(Duration.ofMillis(1000))
+            .build();
+
+    /**
+     * Test when backoff is exponential then pause is doubled up to max retry pace.
+     */
+    @Test
+    public void retryPaceWhenExponentialThenDoubledUpToCap() {
+        LockOptions options = baseOptions.toBuilder().backoff(LockOptions.Backoff.EXPONENTIAL).build();
+
+        Assertions.assertEquals(100, options.retryPaceMillis(0, 0));
+        Assertions.assertEquals(200, options.retryPaceMillis(1, 100));
+        Assertions.assertEquals(800, options.retryPaceMillis(3, 400));
+        Assertions.assertEquals(1000, options.retryPaceMillis(4, 800));
+        Assertions.assertEquals(1000, options.retryPaceMillis(100, 1000));
+    }
+
+    /**
+     * Test when backoff is decorrelated jitter then pause is between retry pace and triple previous pause, capped.
+     */
+    @Test
+    public void retryPaceWhenDecorrelatedJitterThenWithinBounds() {
+        LockOptions options = baseOptions.toBuilder().backoff(LockOptions.Backoff.DECORRELATED_JITTER).build();
+
+        long paceMillis = 0;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            long nextPaceMillis = options.retryPaceMillis(attempt, paceMillis);
+            Assertions.assertTrue(nextPaceMillis >= 100);
+            Assertions.assertTrue(nextPaceMillis <= Math.max(100, Math.min(1000, paceMillis * 3)));
+            paceMillis = nextPaceMillis;
+        }
+    }
+
+    /**
+     * Test when fast retries are set then first pauses are fast, and backoff starts after them.
+     */
+    @Test
+    public void retryPaceWhenFastRetriesThenFastFirst() {
+        LockOptions options = baseOptions.toBuilder()
+                .backoff(LockOptions.Backoff.EXPONENTIAL)
+                .fastRetries(2)
+                .fastRetryPace(Duration.ofMillis(10))
+                .build();
+
+        Assertions.assertEquals(10, options.retryPaceMillis(0, 0));
+        Assertions.assertEquals(10, options.retryPaceMillis(1, 10));
+        Assertions.assertEquals(100, options.retryPaceMillis(2, 10));
+        Assertions.assertEquals(200, options.retryPaceMillis(3, 100));
+    }
+}
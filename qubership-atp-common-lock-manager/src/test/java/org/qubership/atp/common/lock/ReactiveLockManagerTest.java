@@ -0,0 +1,182 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock;
+
+import static java.lang.Thread.sleep;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.atp.common.lock.exceptions.AtpLockRejectException;
+import org.qubership.atp.common.lock.provider.InMemoryLockProvider;
+
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+public class ReactiveLockManagerTest {
+
+    /**
+     * ReactiveLockManager for tests.
+     */
+    private ReactiveLockManager reactiveLockManager;
+
+    /**
+     * Init reactiveLockManager before tests.
+     */
+    @BeforeEach
+    public void setUp() {
+        reactiveLockManager = new ReactiveLockManager(new LockManager(60, 2, 3, new InMemoryLockProvider()));
+    }
+
+    /**
+     * Test when lock is busy then work is subscribed to after the lock is released.
+     *
+     * @throws InterruptedException in case execution is interrupted (or before trying it).
+     */
+    @Test
+    public void executeWithLockWaitLockThenLockObtained() throws InterruptedException {
+        AtomicLong releasedAt = new AtomicLong();
+        reactiveLockManager.executeWithLock("a", Duration.ofSeconds(60),
+                        Mono.delay(Duration.ofMillis(500)).doOnTerminate(() -> releasedAt.set(System.nanoTime())))
+                .subscribe();
+        sleep(100);
+
+        Long obtainedAt = reactiveLockManager.executeWithLock("a", Duration.ofSeconds(30),
+                Mono.fromCallable(System::nanoTime)).block(Duration.ofSeconds(2));
+        Assertions.assertNotNull(obtainedAt);
+        Assertions.assertTrue(releasedAt.get() > 0 && obtainedAt >= releasedAt.get());
+    }
+
+    /**
+     * Test when lock is busy longer than retry timeout then AtpLockRejectException is signalled.
+     *
+     * @throws InterruptedException in case execution is interrupted (or before trying it).
+     */
+    @Test
+    public void executeWithLockWaitLockThenLockNotObtained() throws InterruptedException {
+        Disposable holder = reactiveLockManager.executeWithLock("b", Duration.ofSeconds(60), Mono.never())
+                .subscribe();
+        sleep(100);
+
+        Mono<Boolean> second = reactiveLockManager.executeWithLock("b", Duration.ofSeconds(30), Mono.just(true));
+        Assertions.assertThrows(AtpLockRejectException.class, () -> second.block(Duration.ofSeconds(5)));
+        holder.dispose();
+    }
+
+    /**
+     * Test when lock is busy and options have short max wait then AtpLockRejectException is signalled
+     * before retry timeout of the lock manager.
+     *
+     * @throws InterruptedException in case execution is interrupted (or before trying it).
+     */
+    @Test
+    public void executeWithLockOptionsWhenMaxWaitExceededThenRejectedEarly() throws InterruptedException {
+        Disposable holder = reactiveLockManager.executeWithLock("e", Duration.ofSeconds(60), Mono.never())
+                .subscribe();
+        sleep(100);
+        LockOptions options = LockOptions.builder()
+                .lease(Duration.ofSeconds(30))
+                .maxWait(Duration.ofMillis(300))
+                .retryPace(Duration.ofMillis(50))
+                .build();
+
+        long start = System.nanoTime();
+        Mono<Boolean> second = reactiveLockManager.executeWithLock("e", options, Mono.just(true));
+        Assertions.assertThrows(AtpLockRejectException.class, () -> second.block(Duration.ofSeconds(5)));
+        Assertions.assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+        holder.dispose();
+    }
+
+    /**
+     * Test when the call is made within max wait of LockManager and subscribed to later on another thread
+     * then the wait gives up at the deadline of the call.
+     *
+     * @throws InterruptedException in case execution is interrupted (or before trying it).
+     */
+    @Test
+    public void executeWithLockWithinMaxWaitWhenSubscribedLaterThenRejectedAtDeadline() throws InterruptedException {
+        LockManager lockManager = new LockManager(60, 20, 3, new InMemoryLockProvider());
+        ReactiveLockManager boundedReactiveLockManager = new ReactiveLockManager(lockManager);
+        Disposable holder = boundedReactiveLockManager.executeWithLock("f", Duration.ofSeconds(60), Mono.never())
+                .subscribe();
+        sleep(100);
+
+        long start = System.nanoTime();
+        Mono<Boolean> second = lockManager.executeWithMaxWait(Duration.ofMillis(300),
+                () -> boundedReactiveLockManager.executeWithLock("f", Duration.ofSeconds(30), Mono.just(true)));
+        Mono<Boolean> subscribedElsewhere = second.subscribeOn(Schedulers.parallel());
+        Assertions.assertThrows(AtpLockRejectException.class, () -> subscribedElsewhere.block(Duration.ofSeconds(5)));
+        Assertions.assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos());
+        holder.dispose();
+        lockManager.shutdown();
+    }
+
+    /**
+     * Test when work is cancelled then the lock is released.
+     *
+     * @throws InterruptedException in case execution is interrupted (or before trying it).
+     */
+    @Test
+    public void executeWithLockCancelledThenLockReleased() throws InterruptedException {
+        Disposable holder = reactiveLockManager.executeWithLock("c", Duration.ofSeconds(60), Mono.never())
+                .subscribe();
+        sleep(100);
+        holder.dispose();
+
+        Boolean result = reactiveLockManager.executeWithLock("c", Duration.ofSeconds(30), Mono.just(true))
+                .block(Duration.ofSeconds(1));
+        Assertions.assertEquals(Boolean.TRUE, result);
+    }
+
+    /**
+     * Test when the subscriber cancels while the lock provider call is in flight
+     * then the lock obtained by that call is released.
+     *
+     * @throws InterruptedException in case execution is interrupted (or before trying it).
+     */
+    @Test
+    public void executeWithLockCancelledDuringAttemptThenLockReleased() throws InterruptedException {
+        InMemoryLockProvider slowLockProvider = new InMemoryLockProvider() {
+            @Override
+            public Optional<SimpleLock> lock(final LockConfiguration lockConfiguration) {
+                try {
+                    sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.lock(lockConfiguration);
+            }
+        };
+        ReactiveLockManager slowReactiveLockManager =
+                new ReactiveLockManager(new LockManager(60, 2, 3, slowLockProvider));
+
+        Mono<Boolean> cancelled = slowReactiveLockManager.executeWithLock("d", Duration.ofSeconds(60),
+                Mono.just(true)).timeout(Duration.ofMillis(100));
+        Assertions.assertThrows(RuntimeException.class, () -> cancelled.block(Duration.ofSeconds(1)));
+        sleep(500);
+
+        Assertions.assertEquals(0, slowLockProvider.getRecordCount());
+    }
+}
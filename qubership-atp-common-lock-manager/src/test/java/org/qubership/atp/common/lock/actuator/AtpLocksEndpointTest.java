@@ -0,0 +1,127 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock.actuator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.atp.common.lock.LockHandle;
+import org.qubership.atp.common.lock.LockManager;
+import org.qubership.atp.common.lock.provider.InMemoryLockProvider;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+public class AtpLocksEndpointTest {
+
+    /**
+     * Lock provider for tests.
+     */
+    private InMemoryLockProvider lockProvider;
+
+    /**
+     * LockManager for tests.
+     */
+    private LockManager lockManager;
+
+    /**
+     * Endpoint under test.
+     */
+    private AtpLocksEndpoint endpoint;
+
+    /**
+     * Init lockManager and endpoint before tests.
+     */
+    @BeforeEach
+    public void setUp() {
+        lockProvider = new InMemoryLockProvider();
+        lockManager = new LockManager(60, 20, 1, lockProvider);
+        endpoint = new AtpLocksEndpoint(lockManager, lockProvider);
+    }
+
+    /**
+     * Shutdown lockManager after tests.
+     */
+    @AfterEach
+    public void tearDown() {
+        lockManager.shutdown();
+    }
+
+    /**
+     * Test when the lock is held and awaited then record, holder thread and waiter are listed.
+     *
+     * @throws Exception in case execution fails.
+     */
+    @Test
+    public void locksWhenHeldAndAwaitedThenListed() throws Exception {
+        try (LockHandle handle = lockManager.tryLock("key", Duration.ofSeconds(30)).orElseThrow()) {
+            CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() ->
+                    lockManager.executeWithLock("key", () -> true, () -> false));
+            while (lockManager.getWaiters().isEmpty()) {
+                Thread.sleep(10);
+            }
+            AtpLocksEndpoint.LocksDescriptor locks = endpoint.locks();
+
+            Assertions.assertEquals(1, locks.getRecords().size());
+            Assertions.assertEquals("key", locks.getRecords().get(0).getName());
+            Assertions.assertFalse(locks.getRecords().get(0).isShared());
+            Assertions.assertEquals(List.of(Thread.currentThread().getName()),
+                    locks.getRecords().get(0).getHolderThreads());
+            Assertions.assertEquals(1, locks.getHeld().size());
+            Assertions.assertTrue(locks.getHeld().get(0).getLockAtMostUntil()
+                    .isAfter(locks.getHeld().get(0).getAcquiredAt()));
+            Assertions.assertEquals(1, locks.getWaiters().size());
+            Assertions.assertEquals(1, locks.getWaiters().get(0).getCount());
+            Assertions.assertNotNull(locks.getNode());
+
+            handle.close();
+            Assertions.assertTrue(waiting.get());
+        }
+        AtpLocksEndpoint.LocksDescriptor locks = endpoint.locks();
+        Assertions.assertTrue(locks.getRecords().isEmpty());
+        Assertions.assertTrue(locks.getHeld().isEmpty());
+        Assertions.assertTrue(locks.getWaiters().isEmpty());
+    }
+
+    /**
+     * Test when locks of the key are held by a handle and by a leaked record then force release frees the key.
+     */
+    @Test
+    public void forceReleaseWhenHeldThenKeyIsFree() {
+        LockHandle handle = lockManager.tryLock("key", Duration.ofSeconds(30)).orElseThrow();
+        LockManager otherLockManager = new LockManager(60, 20, 1, lockProvider);
+        try {
+            otherLockManager.tryLock("leaked", Duration.ofSeconds(30)).orElseThrow();
+
+            AtpLocksEndpoint.ForceReleaseDescriptor released = endpoint.forceRelease("key");
+            AtpLocksEndpoint.ForceReleaseDescriptor removed = endpoint.forceRelease("leaked");
+
+            Assertions.assertEquals(1, released.getReleasedLocks());
+            Assertions.assertEquals(0, released.getRemovedRecords());
+            Assertions.assertEquals(0, removed.getReleasedLocks());
+            Assertions.assertEquals(1, removed.getRemovedRecords());
+            Assertions.assertTrue(lockManager.executeWithLockNoWait("key", () -> true, () -> false));
+            Assertions.assertTrue(lockManager.executeWithLockNoWait("leaked", () -> true, () -> false));
+            handle.close();
+        } finally {
+            otherLockManager.shutdown();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock.aop;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.qubership.atp.common.lock.LockManager;
+import org.qubership.atp.common.lock.provider.InMemoryLockProvider;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Benchmark of per-call overhead of {@link org.qubership.atp.common.lock.annotation.AtpLocked}
+ * compared with direct executeWithLock calls building the key by concatenation.
+ * Benchmarks are excluded from the build; run them with: mvn test -Dgroups=benchmark -DexcludedGroups=
+ */
+@Slf4j
+@Tag("benchmark")
+@SuppressWarnings("checkstyle:MagicNumber")
+public class AtpLockedBenchmarkTest {
+
+    /**
+     * Number of calls of each round.
+     */
+    private static final int CALLS = 200_000;
+
+    /**
+     * Test when locked methods are called through the proxy then the per-call overhead stays within
+     * twice the time of direct calls, since metadata and key expression are parsed once per method.
+     */
+    @Test
+    public void callTime() {
+        LockManager lockManager = new LockManager(60, 20, 3, new InMemoryLockProvider());
+        ProxyFactory proxyFactory = new ProxyFactory(new AtpLockedMethodInterceptorTest.SyncService());
+        proxyFactory.addAdvice(new AtpLockedMethodInterceptor(
+                new StaticListableBeanFactory(Map.of("lockManager", lockManager)).getBeanProvider(LockManager.class)));
+        AtpLockedMethodInterceptorTest.SyncService syncService =
+                (AtpLockedMethodInterceptorTest.SyncService) proxyFactory.getProxy();
+        long directNanos = 0;
+        long annotatedNanos = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                String projectId = "p" + (i & 15);
+                lockManager.executeWithLock("sync:" + projectId, lockManager.getDefaultOptions(),
+                        () -> "synced " + projectId, () -> null);
+            }
+            directNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                syncService.sync("p" + (i & 15));
+            }
+            annotatedNanos = System.nanoTime() - start;
+            log.info("Round {}: direct {} ns/call, annotated {} ns/call", round, directNanos / CALLS,
+                    annotatedNanos / CALLS);
+        }
+        lockManager.shutdown();
+
+        Assertions.assertTrue(annotatedNanos < directNanos * 2,
+                "Annotated " + annotatedNanos / CALLS + " ns/call vs direct " + directNanos / CALLS + " ns/call");
+    }
+}
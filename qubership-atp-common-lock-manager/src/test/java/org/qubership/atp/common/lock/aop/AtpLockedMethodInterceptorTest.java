@@ -0,0 +1,169 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock.aop;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.atp.common.lock.LockHandle;
+import org.qubership.atp.common.lock.LockManager;
+import org.qubership.atp.common.lock.annotation.AtpLocked;
+import org.qubership.atp.common.lock.exceptions.AtpLockRejectException;
+import org.qubership.atp.common.lock.provider.InMemoryLockProvider;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+public class AtpLockedMethodInterceptorTest {
+
+    /**
+     * LockManager for tests.
+     */
+    private LockManager lockManager;
+
+    /**
+     * Interceptor of the locked service.
+     */
+    private AtpLockedMethodInterceptor interceptor;
+
+    /**
+     * Proxy of the locked service.
+     */
+    private SyncService syncService;
+
+    /**
+     * Init lockManager and proxy of the locked service before tests.
+     */
+    @BeforeEach
+    public void setUp() {
+        lockManager = new LockManager(60, 20, 3, new InMemoryLockProvider());
+        ProxyFactory proxyFactory = new ProxyFactory(new SyncService());
+        interceptor = new AtpLockedMethodInterceptor(
+                new StaticListableBeanFactory(Map.of("lockManager", lockManager)).getBeanProvider(LockManager.class));
+        proxyFactory.addAdvice(interceptor);
+        syncService = (SyncService) proxyFactory.getProxy();
+    }
+
+    /**
+     * Test when lock of the key evaluated from parameters is busy then locked method isn't called.
+     */
+    @Test
+    public void invokeWhenKeyBusyThenMethodRejected() {
+        try (LockHandle handle = lockManager.tryLock("sync:p1", Duration.ofSeconds(10)).orElseThrow()) {
+            Assertions.assertNull(syncService.syncOrSkip("p1"));
+            Assertions.assertEquals("synced p2", syncService.syncOrSkip("p2"));
+            Assertions.assertThrows(AtpLockRejectException.class, () -> syncService.sync("p1"));
+        }
+
+        Assertions.assertEquals("synced p1", syncService.syncOrSkip("p1"));
+        Assertions.assertEquals("synced p1", syncService.sync("p1"));
+    }
+
+    /**
+     * Test when locked method is called then the lock is held during the call.
+     */
+    @Test
+    public void invokeWhenMethodCalledThenLockHeld() {
+        Assertions.assertEquals(1, syncService.holdCount(lockManager, "p1"));
+        Assertions.assertEquals(0, lockManager.getHoldCount("sync:p1"));
+    }
+
+    /**
+     * Test when locked methods are called repeatedly then metadata is parsed once per method and reused.
+     */
+    @Test
+    public void invokeWhenCalledRepeatedlyThenMetadataParsedOnce() {
+        syncService.sync("p1");
+        AtpLockedMethodInterceptor.LockedMethod parsed = interceptor.lockedMethods.values().iterator().next();
+        for (int i = 0; i < 10; i++) {
+            syncService.sync("p" + i);
+            syncService.syncOrSkip("p" + i);
+        }
+
+        Assertions.assertEquals(2, interceptor.lockedMethods.size());
+        Assertions.assertTrue(interceptor.lockedMethods.values().stream().anyMatch(lockedMethod ->
+                lockedMethod == parsed && lockedMethod.keyExpression == parsed.keyExpression));
+    }
+
+    /**
+     * Test when a method returning a primitive returns null on reject then the bean isn't proxied.
+     */
+    @Test
+    public void postProcessWhenReturnNullOnPrimitiveThenRejected() {
+        AtpLockedAnnotationBeanPostProcessor postProcessor = new AtpLockedAnnotationBeanPostProcessor(
+                new StaticListableBeanFactory(Map.of("lockManager", lockManager)).getBeanProvider(LockManager.class));
+
+        Assertions.assertTrue(AopUtils.isAopProxy(postProcessor.postProcessAfterInitialization(new SyncService(),
+                "syncService")));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> postProcessor.postProcessAfterInitialization(new CountService(), "countService"));
+    }
+
+    public static class CountService {
+
+        /**
+         * Count projects, skipping it if they are being counted.
+         *
+         * @return number of projects.
+         */
+        @AtpLocked(key = "'count'", onReject = AtpLocked.OnReject.RETURN_NULL)
+        public int count() {
+            return 1;
+        }
+    }
+
+    public static class SyncService {
+
+        /**
+         * Sync project, skipping it if the project is being synced.
+         *
+         * @param projectId the project id
+         * @return result of sync, or null if skipped.
+         */
+        @AtpLocked(key = "'sync:' + #projectId", maxWait = "0s", onReject = AtpLocked.OnReject.RETURN_NULL)
+        public String syncOrSkip(final String projectId) {
+            return "synced " + projectId;
+        }
+
+        /**
+         * Sync project.
+         *
+         * @param projectId the project id
+         * @return result of sync.
+         */
+        @AtpLocked(key = "'sync:' + #p0", lease = "30s", maxWait = "100ms")
+        public String sync(final String projectId) {
+            return "synced " + projectId;
+        }
+
+        /**
+         * Get hold count of the project lock inside the locked method.
+         *
+         * @param lockManager the lock manager
+         * @param projectId   the project id
+         * @return hold count.
+         */
+        @AtpLocked(key = "'sync:' + #projectId")
+        public int holdCount(final LockManager lockManager, final String projectId) {
+            return lockManager.getHoldCount("sync:" + projectId);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock.metrics;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.atp.common.lock.LockHandle;
+import org.qubership.atp.common.lock.LockManager;
+import org.qubership.atp.common.lock.provider.InMemoryLockProvider;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+public class MicrometerLockMetricsTest {
+
+    /**
+     * LockManager for tests.
+     */
+    private LockManager lockManager;
+
+    /**
+     * Registry of lock metrics.
+     */
+    private SimpleMeterRegistry registry;
+
+    /**
+     * Lock metrics bound to the registry.
+     */
+    private MicrometerLockMetrics lockMetrics;
+
+    /**
+     * Init lockManager with lock metrics bound to the registry before tests.
+     */
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        lockMetrics = new MicrometerLockMetrics(LockKeyTagExtractor.DEFAULT);
+        lockMetrics.bindTo(registry);
+        lockManager = new LockManager(60, 20, 3, new InMemoryLockProvider());
+        lockManager.setMetrics(lockMetrics);
+    }
+
+    /**
+     * Test when locks of keys with the same prefix are obtained and rejected then metrics are recorded by prefix.
+     */
+    @Test
+    public void executeWithLockThenMetricsRecordedByKeyPrefix() {
+        lockManager.executeWithLock("sync:1", () -> true, () -> false);
+        lockManager.executeWithLock("sync:2", () -> lockManager.executeWithLockNoWait("sync:2", () -> true,
+                () -> false), () -> false);
+
+        Assertions.assertEquals(2, registry.get(MicrometerLockMetrics.METRIC_NAME_WAIT)
+                .tag(MicrometerLockMetrics.TAG_KEY, "sync").timer().count());
+        Assertions.assertEquals(2, registry.get(MicrometerLockMetrics.METRIC_NAME_HOLD)
+                .tag(MicrometerLockMetrics.TAG_KEY, "sync").timer().count());
+        Assertions.assertEquals(1, registry.get(MicrometerLockMetrics.METRIC_NAME_ATTEMPTS)
+                .tag(MicrometerLockMetrics.TAG_KEY, "sync").summary().max());
+        Assertions.assertEquals(0, registry.get(MicrometerLockMetrics.METRIC_NAME_REJECTIONS)
+                .tag(MicrometerLockMetrics.TAG_KEY, "sync").counter().count());
+    }
+
+    /**
+     * Test when lock metrics are bound to another registry then meters are recorded in both registries,
+     * including meters created before the second registry is bound.
+     */
+    @Test
+    public void bindToWhenSecondRegistryThenMetricsRecordedInBoth() {
+        lockManager.executeWithLock("sync:1", () -> true, () -> false);
+        SimpleMeterRegistry secondRegistry = new SimpleMeterRegistry();
+        lockMetrics.bindTo(secondRegistry);
+        lockManager.executeWithLock("sync:2", () -> true, () -> false);
+        lockManager.executeWithLock("report:1", () -> true, () -> false);
+
+        Assertions.assertEquals(2, registry.get(MicrometerLockMetrics.METRIC_NAME_WAIT)
+                .tag(MicrometerLockMetrics.TAG_KEY, "sync").timer().count());
+        Assertions.assertEquals(1, secondRegistry.get(MicrometerLockMetrics.METRIC_NAME_WAIT)
+                .tag(MicrometerLockMetrics.TAG_KEY, "sync").timer().count());
+        Assertions.assertEquals(1, registry.get(MicrometerLockMetrics.METRIC_NAME_WAIT)
+                .tag(MicrometerLockMetrics.TAG_KEY, "report").timer().count());
+        Assertions.assertEquals(1, secondRegistry.get(MicrometerLockMetrics.METRIC_NAME_WAIT)
+                .tag(MicrometerLockMetrics.TAG_KEY, "report").timer().count());
+    }
+
+    /**
+     * Test when the lock is busy then rejection is recorded; when the lease expires then expiration is recorded.
+     *
+     * @throws InterruptedException in case execution is interrupted.
+     */
+    @Test
+    public void executeWithLockWhenBusyOrLeaseExpiredThenRecorded() throws InterruptedException {
+        try (LockHandle handle = lockManager.tryLock("report:1", Duration.ofSeconds(10)).orElseThrow()) {
+            Assertions.assertFalse(lockManager.executeWithLockNoWait("report:1", () -> true, () -> false));
+        }
+        Assertions.assertEquals(1, registry.get(MicrometerLockMetrics.METRIC_NAME_REJECTIONS)
+                .tag(MicrometerLockMetrics.TAG_KEY, "report").counter().count());
+
+        lockManager.tryLock("1234", Duration.ofMillis(10)).orElseThrow().close();
+        try (LockHandle handle = lockManager.tryLock("5678", Duration.ofMillis(10)).orElseThrow()) {
+            Thread.sleep(50);
+        }
+        Assertions.assertEquals(1, registry.get(MicrometerLockMetrics.METRIC_NAME_LEASE_EXPIRATIONS)
+                .tag(MicrometerLockMetrics.TAG_KEY, LockKeyTagExtractor.OTHER_TAG).counter().count());
+    }
+}
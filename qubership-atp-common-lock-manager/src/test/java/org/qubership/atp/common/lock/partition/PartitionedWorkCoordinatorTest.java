@@ -0,0 +1,122 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.atp.common.lock.partition;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.atp.common.lock.LockManager;
+import org.qubership.atp.common.lock.provider.InMemoryLockProvider;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+public class PartitionedWorkCoordinatorTest {
+
+    /**
+     * Lock manager of the first node.
+     */
+    private LockManager firstLockManager;
+
+    /**
+     * Lock manager of the second node; it shares the lock provider with the first one.
+     */
+    private LockManager secondLockManager;
+
+    /**
+     * Number of lock attempts made by the second node.
+     */
+    private AtomicInteger secondLockAttempts;
+
+    /**
+     * Init lock managers of two nodes sharing one lock provider before tests.
+     */
+    @BeforeEach
+    public void setUp() {
+        InMemoryLockProvider lockProvider = new InMemoryLockProvider();
+        secondLockAttempts = new AtomicInteger();
+        firstLockManager = new LockManager(60, 20, 3, lockProvider);
+        secondLockManager = new LockManager(60, 20, 3, lockConfiguration -> {
+            secondLockAttempts.incrementAndGet();
+            return lockProvider.lock(lockConfiguration);
+        });
+    }
+
+    /**
+     * Shut lock managers down after tests.
+     */
+    @AfterEach
+    public void tearDown() {
+        firstLockManager.shutdown();
+        secondLockManager.shutdown();
+    }
+
+    /**
+     * Test when the second node joins then partitions are split between nodes, each key is owned by one node;
+     * when a node leaves then the other one owns all partitions; a rebalance without changes makes one lock attempt.
+     */
+    @Test
+    public void rebalanceWhenNodesJoinAndLeaveThenEachKeyOwnedByOneNode() {
+        try (PartitionedWorkCoordinator first = new PartitionedWorkCoordinator(firstLockManager, "jobs", 8,
+                Duration.ofSeconds(30));
+             PartitionedWorkCoordinator second = new PartitionedWorkCoordinator(secondLockManager, "jobs", 8,
+                     Duration.ofSeconds(30))) {
+            first.rebalance();
+            Assertions.assertEquals(8, first.getOwnedPartitions().size());
+
+            second.rebalance();
+            Assertions.assertTrue(second.getOwnedPartitions().isEmpty());
+            first.rebalance();
+            second.rebalance();
+            Assertions.assertEquals(4, first.getOwnedPartitions().size());
+            Assertions.assertEquals(4, second.getOwnedPartitions().size());
+            for (int i = 0; i < 100; i++) {
+                String key = "job-" + i;
+                Assertions.assertNotEquals(first.owns(key), second.owns(key), key);
+                Assertions.assertEquals(first.partitionOf(key), second.partitionOf(key));
+            }
+
+            first.close();
+            Assertions.assertTrue(first.getOwnedPartitions().isEmpty());
+            second.rebalance();
+            Assertions.assertEquals(8, second.getOwnedPartitions().size());
+            secondLockAttempts.set(0);
+            second.rebalance();
+            Assertions.assertEquals(8, second.getOwnedPartitions().size());
+            Assertions.assertEquals(1, secondLockAttempts.get());
+        }
+    }
+
+    /**
+     * Test when the coordinator is started then partitions are claimed by the scheduler.
+     *
+     * @throws InterruptedException in case waiting is interrupted.
+     */
+    @Test
+    public void startThenPartitionsClaimedAndRenewed() throws InterruptedException {
+        try (PartitionedWorkCoordinator coordinator = new PartitionedWorkCoordinator(firstLockManager, "reports", 4,
+                Duration.ofMillis(300))) {
+            coordinator.start();
+            Thread.sleep(500);
+            Assertions.assertEquals(4, coordinator.getOwnedPartitions().size());
+            Assertions.assertTrue(coordinator.owns("report-1"));
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock.provider;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+public class FileLockProviderTest {
+
+    /**
+     * Lock table file.
+     */
+    private Path file;
+
+    /**
+     * FileLockProvider for tests.
+     */
+    private FileLockProvider lockProvider;
+
+    /**
+     * Init lockProvider with a new file before tests.
+     *
+     * @throws IOException in case the file can't be created.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("locks", ".table");
+        lockProvider = new FileLockProvider(file, 1, 2);
+    }
+
+    /**
+     * Close lockProvider and delete the file after tests.
+     *
+     * @throws IOException in case the file can't be deleted.
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        lockProvider.close();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Test when the lock is held then it isn't obtained until unlock, also by another provider of the file.
+     */
+    @Test
+    public void lockWhenHeldThenNotObtainedUntilUnlock() {
+        SimpleLock lock = lockProvider.lock(lock("a", Duration.ofSeconds(10))).orElseThrow();
+        try (FileLockProvider otherLockProvider = new FileLockProvider(file)) {
+            Assertions.assertTrue(lockProvider.lock(lock("a", Duration.ofSeconds(10))).isEmpty());
+            Assertions.assertTrue(otherLockProvider.lock(lock("a", Duration.ofSeconds(10))).isEmpty());
+            Assertions.assertEquals(1, otherLockProvider.getRecordCount());
+
+            lock.unlock();
+
+            otherLockProvider.lock(lock("a", Duration.ofSeconds(10))).orElseThrow().unlock();
+        }
+    }
+
+    /**
+     * Test when the lock is expired or held at least for some time then its lease is honoured.
+     *
+     * @throws InterruptedException in case execution is interrupted.
+     */
+    @Test
+    public void lockWhenLeaseExpiredOrMinHoldThenLeaseHonoured() throws InterruptedException {
+        SimpleLock expired = lockProvider.lock(lock("a", Duration.ofMillis(50))).orElseThrow();
+        Thread.sleep(100);
+        SimpleLock current = lockProvider.lock(lock("a", Duration.ofSeconds(10))).orElseThrow();
+        expired.unlock();
+        Assertions.assertTrue(lockProvider.lock(lock("a", Duration.ofSeconds(10))).isEmpty());
+        current.unlock();
+
+        lockProvider.lock(new LockConfiguration("b", Duration.ofSeconds(10), Duration.ofMillis(100)))
+                .orElseThrow().unlock();
+        Assertions.assertTrue(lockProvider.lock(lock("b", Duration.ofSeconds(10))).isEmpty());
+        Thread.sleep(150);
+        Assertions.assertTrue(lockProvider.lock(lock("b", Duration.ofSeconds(10))).isPresent());
+    }
+
+    /**
+     * Test when the lock is expired and obtained by another thread of the JVM then extension by previous holder fails.
+     *
+     * @throws InterruptedException in case execution is interrupted.
+     */
+    @Test
+    public void extendWhenLockObtainedByAnotherThreadThenLockNotExtended() throws InterruptedException {
+        SimpleLock expired = lockProvider.lock(lock("a", Duration.ofMillis(50))).orElseThrow();
+        Thread.sleep(100);
+        Thread other = new Thread(() -> lockProvider.lock(lock("a", Duration.ofSeconds(10))).orElseThrow());
+        other.start();
+        other.join();
+
+        Assertions.assertTrue(expired.extend(Duration.ofSeconds(60), Duration.ZERO).isEmpty());
+        Assertions.assertTrue(lockProvider.lock(lock("a", Duration.ofSeconds(10))).isEmpty());
+        SimpleLock current = lockProvider.lock(lock("b", Duration.ofSeconds(10))).orElseThrow();
+        Assertions.assertTrue(current.extend(Duration.ofSeconds(60), Duration.ZERO).isPresent());
+    }
+
+    /**
+     * Test when names don't fit the record in UTF-8 then they are locked by their hash, each one on its own.
+     */
+    @Test
+    public void lockWhenNameLongerThanRecordThenNameCompacted() {
+        String prefix = "\u043a\u043b\u044e\u0447-".repeat(60);
+        SimpleLock first = lockProvider.lock(lock(prefix + 1, Duration.ofSeconds(10))).orElseThrow();
+        Assertions.assertTrue(lockProvider.lock(lock(prefix + 2, Duration.ofSeconds(10))).isPresent());
+        Assertions.assertTrue(lockProvider.lock(lock(prefix + 1, Duration.ofSeconds(10))).isEmpty());
+        Assertions.assertEquals(FileStorageAccessor.MAX_NAME_SIZE, FileStorageAccessor.toBytes(prefix + 1).length);
+
+        first.unlock();
+        Assertions.assertTrue(lockProvider.lock(lock(prefix + 1, Duration.ofSeconds(10))).isPresent());
+    }
+
+    /**
+     * Test when all slots of the bucket are locked then another name isn't locked until a slot is free.
+     */
+    @Test
+    public void lockWhenBucketFullThenSlotReusedAfterUnlock() {
+        SimpleLock first = lockProvider.lock(lock("a", Duration.ofSeconds(10))).orElseThrow();
+        lockProvider.lock(lock("b", Duration.ofSeconds(10))).orElseThrow();
+
+        Assertions.assertTrue(lockProvider.lock(lock("c", Duration.ofSeconds(10))).isEmpty());
+        first.unlock();
+        Assertions.assertTrue(lockProvider.lock(lock("c", Duration.ofSeconds(10))).isPresent());
+        Assertions.assertTrue(lockProvider.lock(lock("a", Duration.ofSeconds(10))).isEmpty());
+    }
+
+    /**
+     * Test when the lock is held by another JVM then it isn't obtained until its lease expires after the JVM exits.
+     *
+     * @throws Exception in case the other JVM can't be started.
+     */
+    @Test
+    public void lockWhenHeldByAnotherJvmThenObtainedAfterLeaseExpired() throws Exception {
+        Process process = new ProcessBuilder(ProcessHandle.current().info().command().orElse("java"),
+                "-cp", System.getProperty("java.class.path"), Holder.class.getName(),
+                file.toString(), "a", "1000")
+                .redirectErrorStream(true)
+                .start();
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            do {
+                line = output.readLine();
+            } while (line != null && !line.equals(Holder.LOCKED));
+            Assertions.assertEquals(Holder.LOCKED, line);
+
+            Assertions.assertTrue(lockProvider.lock(lock("a", Duration.ofSeconds(10))).isEmpty());
+            process.destroyForcibly().waitFor();
+            Assertions.assertTrue(lockProvider.lock(lock("a", Duration.ofSeconds(10))).isEmpty());
+
+            Optional<SimpleLock> lock = Optional.empty();
+            for (int i = 0; i < 30 && lock.isEmpty(); i++) {
+                Thread.sleep(100);
+                lock = lockProvider.lock(lock("a", Duration.ofSeconds(10)));
+            }
+            Assertions.assertTrue(lock.isPresent());
+        } finally {
+            process.destroyForcibly();
+        }
+    }
+
+    private static LockConfiguration lock(final String name, final Duration lockAtMostFor) {
+        return new LockConfiguration(name, lockAtMostFor, Duration.ZERO);
+    }
+
+    /**
+     * Another JVM holding a lock of the file till it's killed.
+     */
+    public static final class Holder {
+
+        /**
+         * Line printed once the lock is obtained.
+         */
+        static final String LOCKED = "locked";
+
+        private Holder() {
+        }
+
+        /**
+         * Obtain the lock and wait.
+         *
+         * @param args path of the lock table file, lock name and lease (milliseconds)
+         * @throws InterruptedException in case execution is interrupted.
+         */
+        public static void main(final String[] args) throws InterruptedException {
+            FileLockProvider lockProvider = new FileLockProvider(Path.of(args[0]));
+            lockProvider.lock(lock(args[1], Duration.ofMillis(Long.parseLong(args[2])))).orElseThrow();
+            System.out.println(LOCKED);
+            Thread.sleep(Long.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.atp.common.lock.provider;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+public class InMemoryStorageAccessorAccessorTest {
+
+    /**
+     * InMemoryStorageAccessorAccessor for tests.
+     */
+    private InMemoryStorageAccessorAccessor storageAccessor;
+
+    /**
+     * Init storageAccessor before tests.
+     */
+    @BeforeEach
+    public void setUp() {
+        storageAccessor = new InMemoryStorageAccessorAccessor(Duration.ofHours(1));
+    }
+
+    /**
+     * Test when lock record isn't expired then it can't be obtained, even with longer lock duration.
+     */
+    @Test
+    public void updateRecordWhenLockNotExpiredThenLockNotObtained() {
+        Assertions.assertTrue(storageAccessor.insertRecord(lock("a", Duration.ofSeconds(10))));
+
+        Assertions.assertFalse(storageAccessor.insertRecord(lock("a", Duration.ofSeconds(60))));
+        Assertions.assertFalse(storageAccessor.updateRecord(lock("a", Duration.ofSeconds(60))));
+    }
+
+    /**
+     * Test when lock record is expired then it can be obtained.
+     *
+     * @throws InterruptedException in case execution is interrupted.
+     */
+    @Test
+    public void updateRecordWhenLockExpiredThenLockObtained() throws InterruptedException {
+        Assertions.assertTrue(storageAccessor.insertRecord(expiredLock("a")));
+        waitExpiration();
+
+        Assertions.assertTrue(storageAccessor.updateRecord(lock("a", Duration.ofSeconds(10))));
+    }
+
+    /**
+     * Test when lock is expired and obtained by another caller then unlock of previous holder keeps it.
+     *
+     * @throws InterruptedException in case execution is interrupted.
+     */
+    @Test
+    public void unlockWhenLockObtainedByAnotherCallerThenLockNotRemoved() throws InterruptedException {
+        LockConfiguration expired = expiredLock("a");
+        Assertions.assertTrue(storageAccessor.insertRecord(expired));
+        waitExpiration();
+        Assertions.assertTrue(storageAccessor.updateRecord(lock("a", Duration.ofSeconds(10))));
+
+        storageAccessor.unlock(expired);
+        Assertions.assertFalse(storageAccessor.updateRecord(lock("a", Duration.ofSeconds(10))));
+    }
+
+    /**
+     * Test when lock is expired and obtained by another caller then extension by previous holder fails
+     * and the lock of the new holder is kept.
+     *
+     * @throws InterruptedException in case execution is interrupted.
+     */
+    @Test
+    public void extendWhenLockObtainedByAnotherCallerThenLockNotExtended() throws InterruptedException {
+        LockConfiguration expired = expiredLock("a");
+        Assertions.assertTrue(storageAccessor.insertRecord(expired));
+        waitExpiration();
+        LockConfiguration current = lock("a", Duration.ofSeconds(10));
+        Assertions.assertTrue(storageAccessor.updateRecord(current));
+
+        Assertions.assertFalse(storageAccessor.extend(expired, lock("a", Duration.ofSeconds(60))));
+        Assertions.assertTrue(storageAccessor.extend(current, lock("a", Duration.ofSeconds(60))));
+
+        InMemoryLockProvider lockProvider = new InMemoryLockProvider();
+        SimpleLock expiredHolder = lockProvider.lock(lock("b", Duration.ofMillis(10))).orElseThrow();
+        waitExpiration();
+        SimpleLock currentHolder = lockProvider.lock(lock("b", Duration.ofSeconds(10))).orElseThrow();
+        Assertions.assertEquals(Optional.empty(), expiredHolder.extend(Duration.ofSeconds(60), Duration.ZERO));
+        Assertions.assertTrue(lockProvider.lock(lock("b", Duration.ofSeconds(10))).isEmpty());
+        Assertions.assertTrue(currentHolder.extend(Duration.ofSeconds(60), Duration.ZERO).isPresent());
+    }
+
+    /**
+     * Test when a lock of the batch is busy then no record of the batch is kept, and listeners of names inserted
+     * before the busy one are notified.
+     */
+    @Test
+    public void insertRecordsWhenLockBusyThenRecordsRemovedAndListenersNotified() {
+        List<String> notified = new ArrayList<>();
+        storageAccessor.addUnlockListener(notified::add);
+        Assertions.assertTrue(storageAccessor.insertRecord(lock("c", Duration.ofSeconds(10))));
+
+        Assertions.assertFalse(storageAccessor.insertRecords(Arrays.asList(lock("a", Duration.ofSeconds(10)),
+                lock("b", Duration.ofSeconds(10)), lock("c", Duration.ofSeconds(10)))));
+        Assertions.assertEquals(Arrays.asList("b", "a"), notified);
+        Assertions.assertEquals(1, storageAccessor.getRecords().size());
+    }
+
+    /**
+     * Test when records are expired then they are evicted.
+     *
+     * @throws InterruptedException in case execution is interrupted.
+     */
+    @Test
+    public void evictExpiredWhenRecordsExpiredThenRecordsRemoved() throws InterruptedException {
+        storageAccessor.insertRecord(expiredLock("a"));
+        storageAccessor.insertRecord(expiredLock("b"));
+        storageAccessor.insertRecord(lock("c", Duration.ofSeconds(10)));
+        waitExpiration();
+
+        Assertions.assertEquals(2, storageAccessor.evictExpired());
+        Assertions.assertEquals(1, storageAccessor.getRecordCount());
+    }
+
+    /**
+     * Test when shared lock records are held then more shared ones can be obtained, but exclusive one can't
+     * until the last shared one is unlocked.
+     */
+    @Test
+    public void insertSharedRecordWhenSharedLocksHeldThenOnlySharedLockObtained() {
+        LockConfiguration shared1 = lock("a", Duration.ofSeconds(10));
+        LockConfiguration shared2 = lock("a", Duration.ofSeconds(10));
+        Assertions.assertTrue(storageAccessor.insertSharedRecord(shared1));
+        Assertions.assertTrue(storageAccessor.insertSharedRecord(shared2));
+        Assertions.assertFalse(storageAccessor.insertRecord(lock("a", Duration.ofSeconds(10))));
+
+        storageAccessor.unlockShared(shared1);
+        Assertions.assertFalse(storageAccessor.insertRecord(lock("a", Duration.ofSeconds(10))));
+        storageAccessor.unlockShared(shared2);
+        Assertions.assertTrue(storageAccessor.insertRecord(lock("a", Duration.ofSeconds(10))));
+        Assertions.assertFalse(storageAccessor.insertSharedRecord(lock("a", Duration.ofSeconds(10))));
+    }
+
+    /**
+     * Test when waiters are queued then the lock is obtained by the first one, even if another one tries earlier.
+     */
+    @Test
+    public void insertRecordInTurnWhenWaitersQueuedThenFirstWaiterObtainsLock() {
+        LockConfiguration held = lock("a", Duration.ofSeconds(10));
+        Assertions.assertTrue(storageAccessor.insertRecord(held));
+        Assertions.assertFalse(storageAccessor.insertRecordInTurn(lock("a", Duration.ofSeconds(10)), "first",
+                Duration.ofSeconds(10)));
+        Assertions.assertFalse(storageAccessor.insertRecordInTurn(lock("a", Duration.ofSeconds(10)), "second",
+                Duration.ofSeconds(10)));
+        storageAccessor.unlock(held);
+
+        Assertions.assertFalse(storageAccessor.insertRecordInTurn(lock("a", Duration.ofSeconds(10)), "second",
+                Duration.ofSeconds(10)));
+        Assertions.assertTrue(storageAccessor.insertRecordInTurn(lock("a", Duration.ofSeconds(10)), "first",
+                Duration.ofSeconds(10)));
+    }
+
+    /**
+     * Test when the first waiter leaves the queue then the next one obtains the lock.
+     */
+    @Test
+    public void leaveQueueWhenFirstWaiterLeavesThenNextWaiterObtainsLock() {
+        LockConfiguration held = lock("a", Duration.ofSeconds(10));
+        Assertions.assertTrue(storageAccessor.insertRecord(held));
+        storageAccessor.insertRecordInTurn(lock("a", Duration.ofSeconds(10)), "first", Duration.ofSeconds(10));
+        storageAccessor.insertRecordInTurn(lock("a", Duration.ofSeconds(10)), "second", Duration.ofSeconds(10));
+        storageAccessor.unlock(held);
+
+        storageAccessor.leaveQueue("a", "first");
+        Assertions.assertTrue(storageAccessor.insertRecordInTurn(lock("a", Duration.ofSeconds(10)), "second",
+                Duration.ofSeconds(10)));
+    }
+
+    private static LockConfiguration lock(final String name, final Duration lockAtMostFor) {
+        return new LockConfiguration(name, lockAtMostFor, Duration.ZERO);
+    }
+
+    private static void waitExpiration() throws InterruptedException {
+        Thread.sleep(50);
+    }
+
+    private static LockConfiguration expiredLock(final String name) {
+        return new LockConfiguration(name, Instant.now().plusMillis(1), Instant.now());
+    }
+}